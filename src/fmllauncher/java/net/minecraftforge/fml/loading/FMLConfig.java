@@ -44,6 +44,8 @@ public class FMLConfig
         configSpec.define("maxThreads", -1);
         configSpec.define("versionCheck", Boolean.TRUE);
         configSpec.define("defaultConfigPath",  "defaultconfigs");
+        configSpec.define("scanThreads", -1);
+        configSpec.define("scanCache", Boolean.TRUE);
     }
 
     private CommentedFileConfig configData;
@@ -80,6 +82,8 @@ public class FMLConfig
         LOGGER.trace(CORE, "Max threads for mod loading computed at {}", FMLConfig::loadingThreadCount);
         LOGGER.trace(CORE, "Version check is {}", FMLConfig::runVersionCheck);
         LOGGER.trace(CORE, "Default config paths at {}", FMLConfig::defaultConfigPath);
+        LOGGER.trace(CORE, "Mod scanning threads computed at {}", FMLConfig::scanThreadCount);
+        LOGGER.trace(CORE, "Mod scan cache is {}", FMLConfig::useScanCache);
         FMLPaths.getOrCreateGameRelativePath(Paths.get(FMLConfig.defaultConfigPath()), "default config directory");
     }
 
@@ -93,6 +97,16 @@ public class FMLConfig
         return val;
     }
 
+    public static int scanThreadCount() {
+        int val = INSTANCE.configData.<Integer>getOptional("scanThreads").orElse(-1);
+        if (val <= 0) return loadingThreadCount();
+        return val;
+    }
+
+    public static boolean useScanCache() {
+        return INSTANCE.configData.<Boolean>getOptional("scanCache").orElse(Boolean.TRUE);
+    }
+
     public static boolean runVersionCheck() {
         return INSTANCE.configData.<Boolean>getOptional("versionCheck").orElse(Boolean.TRUE);
     }
@@ -19,6 +19,7 @@
 
 package net.minecraftforge.fml.loading.moddiscovery;
 
+import net.minecraftforge.fml.loading.FMLConfig;
 import net.minecraftforge.forgespi.language.ModFileScanData;
 import net.minecraftforge.fml.loading.LoadingModList;
 import net.minecraftforge.forgespi.locating.IModFile;
@@ -26,9 +27,12 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -43,17 +47,21 @@ public class BackgroundScanHandler
     private final List<ModFile> scannedFiles;
     private final List<ModFile> allFiles;
     private final Map<IModFile.Type, List<ModFile>> modFiles;
+    private final Map<ModFile, Long> scanTimes = new ConcurrentHashMap<>();
+    private final int threadCount;
+    private long scanStart;
     private LoadingModList loadingModList;
 
     public BackgroundScanHandler(final Map<IModFile.Type, List<ModFile>> modFiles) {
         this.modFiles = modFiles;
-        modContentScanner = Executors.newSingleThreadExecutor(r -> {
+        this.threadCount = FMLConfig.scanThreadCount();
+        modContentScanner = Executors.newFixedThreadPool(threadCount, r -> {
             final Thread thread = Executors.defaultThreadFactory().newThread(r);
             thread.setDaemon(true);
             return thread;
         });
-        scannedFiles = new ArrayList<>();
-        pendingFiles = new ArrayList<>();
+        scannedFiles = Collections.synchronizedList(new ArrayList<>());
+        pendingFiles = Collections.synchronizedList(new ArrayList<>());
         allFiles = new ArrayList<>();
     }
 
@@ -65,9 +73,19 @@ public class BackgroundScanHandler
         if (modContentScanner.isShutdown()) {
             throw new IllegalStateException("Scanner has shutdown");
         }
+        if (allFiles.isEmpty()) {
+            scanStart = System.nanoTime();
+        }
         allFiles.add(file);
         pendingFiles.add(file);
-        final CompletableFuture<ModFileScanData> future = CompletableFuture.supplyAsync(file::compileContent, modContentScanner)
+        final CompletableFuture<ModFileScanData> future = CompletableFuture.supplyAsync(() -> {
+                    final long start = System.nanoTime();
+                    try {
+                        return file.compileContent();
+                    } finally {
+                        scanTimes.put(file, System.nanoTime() - start);
+                    }
+                }, modContentScanner)
                 .whenComplete(file::setScanResult)
                 .whenComplete((r,t)-> this.addCompletedFile(file,r,t));
         file.setFutureScanResult(future);
@@ -100,6 +118,17 @@ public class BackgroundScanHandler
             } catch (InterruptedException e) {
                 Thread.interrupted();
             }
-        } while (!modContentScanner.isShutdown());
+        } while (!modContentScanner.isTerminated());
+        logScanTimes();
+    }
+
+    private void logScanTimes() {
+        if (allFiles.isEmpty()) {
+            return;
+        }
+        LOGGER.debug(SCAN, "Scanned {} mod files in {} ms using {} threads", allFiles.size(), (System.nanoTime() - scanStart) / 1000000, threadCount);
+        scanTimes.entrySet().stream().
+                sorted(Map.Entry.<ModFile, Long>comparingByValue(Comparator.reverseOrder())).
+                forEach(e -> LOGGER.debug(SCAN, "Scanned {} in {} ms", e.getKey().getFileName(), e.getValue() / 1000000));
     }
 }
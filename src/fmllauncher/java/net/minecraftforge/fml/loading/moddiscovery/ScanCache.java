@@ -0,0 +1,379 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.loading.moddiscovery;
+
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.forgespi.language.ModFileScanData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.Type;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.ElementType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static net.minecraftforge.fml.loading.LogMarkers.SCAN;
+
+/**
+ * Persistent cache of the class and annotation data {@link Scanner} collects from a mod jar, so jars that did not
+ * change since the last launch do not need to be read with ASM again.
+ * <p>
+ * Entries are keyed by the jar path, and only used if the size, modification time and SHA-1 of the jar still match.
+ * Only the ASM part of the scan is cached, language provider visitors always run on the result.
+ */
+final class ScanCache {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final int MAGIC = 0x464d4c53; // FMLS
+    private static final int VERSION = 1;
+
+    private final Path jar;
+    private final Path cacheFile;
+    private final long size;
+    private final long modified;
+    private final String hash;
+
+    private ScanCache(final Path jar, final Path cacheFile, final long size, final long modified, final String hash) {
+        this.jar = jar;
+        this.cacheFile = cacheFile;
+        this.size = size;
+        this.modified = modified;
+        this.hash = hash;
+    }
+
+    /**
+     * @return The cache entry for a mod file, or null if it can not be cached, such as exploded directories
+     */
+    static ScanCache forFile(final Path file) {
+        if (!Files.isRegularFile(file))
+            return null;
+        try {
+            final Path jar = file.toAbsolutePath().normalize();
+            final String key = digest(jar.toString().getBytes(StandardCharsets.UTF_8));
+            final Path cacheFile = FMLPaths.GAMEDIR.get().resolve("scancache").resolve(key + ".bin");
+            return new ScanCache(jar, cacheFile, Files.size(jar), Files.getLastModifiedTime(jar).toMillis(), hash(jar));
+        } catch (IOException e) {
+            LOGGER.debug(SCAN, "Unable to cache scan data for {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads the cached scan data into the result.
+     * @return If the cache was up to date and read successfully
+     */
+    boolean read(final ModFileScanData result) {
+        if (!Files.exists(cacheFile))
+            return false;
+        final Set<ModFileScanData.ClassData> classes = new HashSet<>();
+        final List<ModFileScanData.AnnotationData> annotations = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(cacheFile))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !in.readUTF().equals(jar.toString()) ||
+                    in.readLong() != size || in.readLong() != modified || !in.readUTF().equals(hash))
+                return false;
+            for (int i = in.readInt(); i > 0; i--) {
+                final Type clazz = Type.getType(in.readUTF());
+                final Type parent = in.readBoolean() ? Type.getType(in.readUTF()) : null;
+                final Set<Type> interfaces = new HashSet<>();
+                for (int j = in.readInt(); j > 0; j--)
+                    interfaces.add(Type.getType(in.readUTF()));
+                classes.add(new ModFileScanData.ClassData(clazz, parent, interfaces));
+                for (int j = in.readInt(); j > 0; j--) {
+                    final ElementType target = ElementType.valueOf(in.readUTF());
+                    final Type annotationType = Type.getType(in.readUTF());
+                    final String member = in.readUTF();
+                    @SuppressWarnings("unchecked")
+                    final Map<String, Object> values = (Map<String, Object>)readValue(in);
+                    annotations.add(new ModFileScanData.AnnotationData(annotationType, target, clazz, member, values));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(SCAN, "Ignoring unreadable scan cache {} for {}", cacheFile, jar, e);
+            return false;
+        }
+        result.getClasses().addAll(classes);
+        result.getAnnotations().addAll(annotations);
+        return true;
+    }
+
+    /**
+     * Writes the data collected from the jar to the cache, replacing any previous entry.
+     */
+    void write(final List<ModClassVisitor> visitors) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            final Path temp = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(jar.toString());
+                out.writeLong(size);
+                out.writeLong(modified);
+                out.writeUTF(hash);
+                out.writeInt(visitors.size());
+                for (ModClassVisitor visitor : visitors) {
+                    out.writeUTF(visitor.getASMType().getDescriptor());
+                    out.writeBoolean(visitor.getASMSuperType() != null);
+                    if (visitor.getASMSuperType() != null)
+                        out.writeUTF(visitor.getASMSuperType().getDescriptor());
+                    out.writeInt(visitor.getInterfaces().size());
+                    for (Type type : visitor.getInterfaces())
+                        out.writeUTF(type.getDescriptor());
+                    final List<ModAnnotation> interesting = visitor.getInterestingAnnotations();
+                    out.writeInt(interesting.size());
+                    for (ModAnnotation annotation : interesting) {
+                        out.writeUTF(annotation.getType().name());
+                        out.writeUTF(annotation.getASMType().getDescriptor());
+                        out.writeUTF(annotation.getMember());
+                        writeValue(out, annotation.getValues());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.debug(SCAN, "Failed to write scan cache {} for {}", cacheFile, jar, e);
+        }
+    }
+
+    private static final int STRING = 0, INT = 1, LONG = 2, BOOLEAN = 3, BYTE = 4, SHORT = 5, CHAR = 6, FLOAT = 7, DOUBLE = 8,
+            TYPE = 9, ENUM = 10, LIST = 11, MAP = 12, BOOLEANS = 13, BYTES = 14, SHORTS = 15, CHARS = 16, INTS = 17, LONGS = 18,
+            FLOATS = 19, DOUBLES = 20;
+
+    private static void writeValue(final DataOutputStream out, final Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte(STRING);
+            out.writeUTF((String)value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INT);
+            out.writeInt((Integer)value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long)value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean)value);
+        } else if (value instanceof Byte) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte)value);
+        } else if (value instanceof Short) {
+            out.writeByte(SHORT);
+            out.writeShort((Short)value);
+        } else if (value instanceof Character) {
+            out.writeByte(CHAR);
+            out.writeChar((Character)value);
+        } else if (value instanceof Float) {
+            out.writeByte(FLOAT);
+            out.writeFloat((Float)value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double)value);
+        } else if (value instanceof Type) {
+            out.writeByte(TYPE);
+            out.writeUTF(((Type)value).getDescriptor());
+        } else if (value instanceof ModAnnotation.EnumHolder) {
+            out.writeByte(ENUM);
+            out.writeUTF(((ModAnnotation.EnumHolder)value).getDesc());
+            out.writeUTF(((ModAnnotation.EnumHolder)value).getValue());
+        } else if (value instanceof List) {
+            out.writeByte(LIST);
+            out.writeInt(((List<?>)value).size());
+            for (Object o : (List<?>)value)
+                writeValue(out, o);
+        } else if (value instanceof Map) {
+            out.writeByte(MAP);
+            out.writeInt(((Map<?, ?>)value).size());
+            for (Map.Entry<?, ?> e : ((Map<?, ?>)value).entrySet()) {
+                out.writeUTF((String)e.getKey());
+                writeValue(out, e.getValue());
+            }
+        } else if (value instanceof boolean[]) {
+            out.writeByte(BOOLEANS);
+            out.writeInt(((boolean[])value).length);
+            for (boolean b : (boolean[])value)
+                out.writeBoolean(b);
+        } else if (value instanceof byte[]) {
+            out.writeByte(BYTES);
+            out.writeInt(((byte[])value).length);
+            out.write((byte[])value);
+        } else if (value instanceof short[]) {
+            out.writeByte(SHORTS);
+            out.writeInt(((short[])value).length);
+            for (short s : (short[])value)
+                out.writeShort(s);
+        } else if (value instanceof char[]) {
+            out.writeByte(CHARS);
+            out.writeInt(((char[])value).length);
+            for (char c : (char[])value)
+                out.writeChar(c);
+        } else if (value instanceof int[]) {
+            out.writeByte(INTS);
+            out.writeInt(((int[])value).length);
+            for (int i : (int[])value)
+                out.writeInt(i);
+        } else if (value instanceof long[]) {
+            out.writeByte(LONGS);
+            out.writeInt(((long[])value).length);
+            for (long l : (long[])value)
+                out.writeLong(l);
+        } else if (value instanceof float[]) {
+            out.writeByte(FLOATS);
+            out.writeInt(((float[])value).length);
+            for (float f : (float[])value)
+                out.writeFloat(f);
+        } else if (value instanceof double[]) {
+            out.writeByte(DOUBLES);
+            out.writeInt(((double[])value).length);
+            for (double d : (double[])value)
+                out.writeDouble(d);
+        } else {
+            throw new IOException("Unsupported annotation value " + (value == null ? "null" : value.getClass().getName()));
+        }
+    }
+
+    private static Object readValue(final DataInputStream in) throws IOException {
+        final int tag = in.readByte();
+        switch (tag) {
+            case STRING: return in.readUTF();
+            case INT: return in.readInt();
+            case LONG: return in.readLong();
+            case BOOLEAN: return in.readBoolean();
+            case BYTE: return in.readByte();
+            case SHORT: return in.readShort();
+            case CHAR: return in.readChar();
+            case FLOAT: return in.readFloat();
+            case DOUBLE: return in.readDouble();
+            case TYPE: return Type.getType(in.readUTF());
+            case ENUM: return new ModAnnotation.EnumHolder(in.readUTF(), in.readUTF());
+            case LIST: {
+                final int length = in.readInt();
+                final ArrayList<Object> list = new ArrayList<>(length);
+                for (int i = 0; i < length; i++)
+                    list.add(readValue(in));
+                return list;
+            }
+            case MAP: {
+                final int length = in.readInt();
+                final Map<String, Object> map = new HashMap<>();
+                for (int i = 0; i < length; i++)
+                    map.put(in.readUTF(), readValue(in));
+                return map;
+            }
+            case BOOLEANS: {
+                final boolean[] array = new boolean[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readBoolean();
+                return array;
+            }
+            case BYTES: {
+                final byte[] array = new byte[in.readInt()];
+                in.readFully(array);
+                return array;
+            }
+            case SHORTS: {
+                final short[] array = new short[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readShort();
+                return array;
+            }
+            case CHARS: {
+                final char[] array = new char[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readChar();
+                return array;
+            }
+            case INTS: {
+                final int[] array = new int[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readInt();
+                return array;
+            }
+            case LONGS: {
+                final long[] array = new long[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readLong();
+                return array;
+            }
+            case FLOATS: {
+                final float[] array = new float[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readFloat();
+                return array;
+            }
+            case DOUBLES: {
+                final double[] array = new double[in.readInt()];
+                for (int i = 0; i < array.length; i++)
+                    array[i] = in.readDouble();
+                return array;
+            }
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static String hash(final Path file) throws IOException {
+        final MessageDigest digest = sha1();
+        final byte[] buffer = new byte[65536];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static String digest(final byte[] data) {
+        return toHex(sha1().digest(data));
+    }
+
+    private static MessageDigest sha1() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    private static String toHex(final byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes)
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return sb.toString();
+    }
+}
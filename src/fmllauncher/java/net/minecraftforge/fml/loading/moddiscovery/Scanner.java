@@ -19,6 +19,7 @@
 
 package net.minecraftforge.fml.loading.moddiscovery;
 
+import net.minecraftforge.fml.loading.FMLConfig;
 import net.minecraftforge.forgespi.language.IModLanguageProvider;
 import net.minecraftforge.forgespi.language.ModFileScanData;
 import org.apache.logging.log4j.LogManager;
@@ -29,6 +30,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static net.minecraftforge.fml.loading.LogMarkers.SCAN;
 
@@ -41,9 +44,20 @@ public class Scanner {
     }
 
     public ModFileScanData scan() {
+        final long start = System.nanoTime();
         ModFileScanData result = new ModFileScanData();
         result.addModFileInfo(fileToScan.getModFileInfo());
-        fileToScan.scanFile(p -> fileVisitor(p, result));
+        final ScanCache cache = FMLConfig.useScanCache() ? ScanCache.forFile(fileToScan.getFilePath()) : null;
+        if (cache != null && cache.read(result)) {
+            LOGGER.debug(SCAN, "Using cached scan data for {}", fileToScan.getFilePath());
+        } else {
+            final List<ModClassVisitor> visitors = new ArrayList<>();
+            fileToScan.scanFile(p -> fileVisitor(p, visitors));
+            visitors.forEach(mcv -> mcv.buildData(result.getClasses(), result.getAnnotations()));
+            if (cache != null)
+                cache.write(visitors);
+        }
+        LOGGER.debug(SCAN, "Scanned {} classes in {} in {} ms", result.getClasses().size(), fileToScan.getFilePath(), (System.nanoTime() - start) / 1000000);
         final IModLanguageProvider loader = fileToScan.getLoader();
         if (loader != null) {
             LOGGER.debug(SCAN, "Scanning {} with language loader {}", fileToScan.getFilePath(), loader.name());
@@ -52,13 +66,13 @@ public class Scanner {
         return result;
     }
 
-    private void fileVisitor(final Path path, final ModFileScanData result) {
+    private void fileVisitor(final Path path, final List<ModClassVisitor> visitors) {
         LOGGER.debug(SCAN,"Scanning {} path {}", fileToScan, path);
         try (InputStream in = Files.newInputStream(path)){
             ModClassVisitor mcv = new ModClassVisitor();
             ClassReader cr = new ClassReader(in);
             cr.accept(mcv, 0);
-            mcv.buildData(result.getClasses(), result.getAnnotations());
+            visitors.add(mcv);
         } catch (IOException | IllegalArgumentException e) {
             // mark path bad
         }
@@ -20,16 +20,21 @@
 package net.minecraftforge.client.model;
 
 import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.annotation.Nullable;
 
 import com.google.common.base.Preconditions;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
 import net.minecraft.client.Minecraft;
 import net.minecraft.tileentity.TileEntity;
 import net.minecraft.util.math.BlockPos;
@@ -42,48 +47,63 @@ import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber;
 import net.minecraftforge.fml.common.Mod.EventBusSubscriber.Bus;
 
+/**
+ * Caches the {@link IModelData} of tile entities in the client world.
+ *
+ * Positions are stored packed into longs. Refresh requests are batched per chunk and only applied when
+ * the model data of that chunk is requested, typically when a chunk section is rebuilt. Each refresh publishes a new,
+ * immutable snapshot of the chunk's model data, so chunk builder threads can read it without locking.
+ */
 @EventBusSubscriber(modid = "forge", bus = Bus.FORGE, value = Dist.CLIENT)
 public class ModelDataManager
 {
     private static WeakReference<World> currentWorld = new WeakReference<>(null);
     
-    private static final Map<ChunkPos, Set<BlockPos>> needModelDataRefresh = new ConcurrentHashMap<>();
+    private static final Long2ObjectMap<LongSet> needModelDataRefresh = new Long2ObjectOpenHashMap<>();
     
-    private static final Map<ChunkPos, Map<BlockPos, IModelData>> modelDataCache = new ConcurrentHashMap<>();
+    private static final Long2ObjectMap<ChunkModelData> modelDataCache = new Long2ObjectOpenHashMap<>();
 
     private static void cleanCaches(World world)
     {
+        if (world == currentWorld.get())
+            return;
         Preconditions.checkNotNull(world, "World must not be null");
         Preconditions.checkArgument(world == Minecraft.getInstance().world, "Cannot use model data for a world other than the current client world");
-        if (world != currentWorld.get())
-        {
-            currentWorld = new WeakReference<>(world);
-            needModelDataRefresh.clear();
-            modelDataCache.clear();
-        }
+        currentWorld = new WeakReference<>(world);
+        needModelDataRefresh.clear();
+        modelDataCache.clear();
     }
     
-    public static void requestModelDataRefresh(TileEntity te)
+    public static synchronized void requestModelDataRefresh(TileEntity te)
     {
         Preconditions.checkNotNull(te, "Tile entity must not be null");
         World world = te.getWorld();
 
         cleanCaches(world);
-        needModelDataRefresh.computeIfAbsent(new ChunkPos(te.getPos()), $ -> Collections.synchronizedSet(new HashSet<>()))
-                            .add(te.getPos());
+        BlockPos pos = te.getPos();
+        LongSet pending = needModelDataRefresh.get(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        if (pending == null)
+        {
+            pending = new LongOpenHashSet();
+            needModelDataRefresh.put(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), pending);
+        }
+        pending.add(pos.toLong());
     }
     
-    private static void refreshModelData(World world, ChunkPos chunk)
+    @Nullable
+    private static ChunkModelData refreshModelData(World world, long chunk)
     {        
         cleanCaches(world);
-        Set<BlockPos> needUpdate = needModelDataRefresh.remove(chunk);
+        ChunkModelData current = modelDataCache.get(chunk);
+        LongSet needUpdate = needModelDataRefresh.remove(chunk);
 
         if (needUpdate != null)
         {
-            Map<BlockPos, IModelData> data = modelDataCache.computeIfAbsent(chunk, $ -> new ConcurrentHashMap<>());
-            for (BlockPos pos : needUpdate)
+            Long2ObjectOpenHashMap<IModelData> data = current == null ? new Long2ObjectOpenHashMap<>(needUpdate.size()) : new Long2ObjectOpenHashMap<>(current.data);
+            for (LongIterator itr = needUpdate.iterator(); itr.hasNext();)
             {
-                TileEntity toUpdate = world.getTileEntity(pos);
+                long pos = itr.nextLong();
+                TileEntity toUpdate = world.getTileEntity(BlockPos.fromLong(pos));
                 if (toUpdate != null && !toUpdate.isRemoved())
                 {
                     data.put(pos, toUpdate.getModelData());
@@ -93,7 +113,10 @@ public class ModelDataManager
                     data.remove(pos);
                 }
             }
+            current = new ChunkModelData(data);
+            modelDataCache.put(chunk, current);
         }
+        return current;
     }
     
     @SubscribeEvent
@@ -101,20 +124,80 @@ public class ModelDataManager
     {
         if (!event.getChunk().getWorldForge().isRemote()) return;
         
-        ChunkPos chunk = event.getChunk().getPos();
-        needModelDataRefresh.remove(chunk);
-        modelDataCache.remove(chunk);
+        long chunk = event.getChunk().getPos().asLong();
+        synchronized (ModelDataManager.class)
+        {
+            needModelDataRefresh.remove(chunk);
+            modelDataCache.remove(chunk);
+        }
     }
     
-    public static @Nullable IModelData getModelData(World world, BlockPos pos)
+    public static synchronized @Nullable IModelData getModelData(World world, BlockPos pos)
     {
-        return getModelData(world, new ChunkPos(pos)).get(pos);
+        Preconditions.checkArgument(world.isRemote, "Cannot request model data for server world");
+        ChunkModelData data = refreshModelData(world, ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4));
+        return data == null ? null : data.data.get(pos.toLong());
     }
     
-    public static Map<BlockPos, IModelData> getModelData(World world, ChunkPos pos)
+    /**
+     * @return An immutable snapshot of the model data in the given chunk
+     */
+    public static synchronized Map<BlockPos, IModelData> getModelData(World world, ChunkPos pos)
     {
         Preconditions.checkArgument(world.isRemote, "Cannot request model data for server world");
-        refreshModelData(world, pos);
-        return modelDataCache.getOrDefault(pos, Collections.emptyMap());
+        ChunkModelData data = refreshModelData(world, pos.asLong());
+        return data == null ? Collections.emptyMap() : data;
+    }
+
+    /**
+     * Read only view of the model data of a chunk, looking up positions by their packed long form.
+     */
+    private static class ChunkModelData extends AbstractMap<BlockPos, IModelData>
+    {
+        private final Long2ObjectMap<IModelData> data;
+
+        private ChunkModelData(Long2ObjectMap<IModelData> data)
+        {
+            this.data = data;
+        }
+
+        @Override
+        public IModelData get(Object key)
+        {
+            return key instanceof BlockPos ? data.get(((BlockPos)key).toLong()) : null;
+        }
+
+        @Override
+        public IModelData getOrDefault(Object key, IModelData defaultValue)
+        {
+            IModelData ret = get(key);
+            return ret != null ? ret : defaultValue;
+        }
+
+        @Override
+        public boolean containsKey(Object key)
+        {
+            return key instanceof BlockPos && data.containsKey(((BlockPos)key).toLong());
+        }
+
+        @Override
+        public int size()
+        {
+            return data.size();
+        }
+
+        @Override
+        public boolean isEmpty()
+        {
+            return data.isEmpty();
+        }
+
+        @Override
+        public Set<Entry<BlockPos, IModelData>> entrySet()
+        {
+            return data.long2ObjectEntrySet().stream()
+                    .map(e -> new SimpleImmutableEntry<>(BlockPos.fromLong(e.getLongKey()), e.getValue()))
+                    .collect(Collectors.toSet());
+        }
     }
 }
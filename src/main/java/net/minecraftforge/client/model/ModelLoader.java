@@ -19,9 +19,19 @@
 
 package net.minecraftforge.client.model;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
 
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.renderer.color.BlockColors;
@@ -32,6 +42,7 @@ import net.minecraft.client.renderer.texture.AtlasTexture;
 import net.minecraft.profiler.IProfiler;
 import net.minecraft.resources.IResourceManager;
 import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.common.ForgeConfig;
 import net.minecraftforge.logging.ModelLoaderErrorMessage;
 
 import java.util.function.Function;
@@ -51,6 +62,10 @@ public final class ModelLoader extends ModelBakery
     private IUnbakedModel missingModel = null;
 
     private boolean isLoading = false;
+    private boolean bakedTopLevelModels = false;
+    // Results of bakeTopLevelModels, handed to the vanilla bake loop once. Generated item models are not kept in bakedModels.
+    private final Map<ResourceLocation, Object> preBakedModels = new ConcurrentHashMap<>();
+    private volatile boolean preBaking = false;
 
     private static ModelLoader instance;
 
@@ -69,9 +84,124 @@ public final class ModelLoader extends ModelBakery
     {
         super(manager, colours, false);
         instance = this;
+        // Baking may run on several threads, see bakeTopLevelModels
+        bakedModels = Collections.synchronizedMap(new HashMap<>());
         processLoading(profiler, maxMipmapLevel);
     }
 
+    @Override
+    public synchronized IUnbakedModel getUnbakedModel(ResourceLocation modelLocation)
+    {
+        return super.getUnbakedModel(modelLocation);
+    }
+
+    @Nullable
+    @Override
+    public IBakedModel getBakedModel(ResourceLocation location, IModelTransform transform, Function<RenderMaterial, TextureAtlasSprite> textureGetter)
+    {
+        // The first request comes from the vanilla bake loop, once the atlases are ready.
+        // Bake everything up front on several threads so that loop only has to pick the results up.
+        if (!bakedTopLevelModels)
+        {
+            bakedTopLevelModels = true;
+            if (ForgeConfig.CLIENT.parallelModelBaking.getAsBoolean())
+                bakeTopLevelModels(textureGetter);
+        }
+        if (transform == ModelRotation.X0_Y0 && !preBaking && !preBakedModels.isEmpty())
+        {
+            Object preBaked = preBakedModels.remove(location);
+            if (preBaked instanceof IBakedModel)
+                return (IBakedModel) preBaked;
+            // rethrown so the vanilla loop reports it, instead of baking the model a second time
+            if (preBaked instanceof RuntimeException)
+                throw (RuntimeException) preBaked;
+            if (preBaked instanceof Exception)
+                throw new RuntimeException((Exception) preBaked);
+        }
+        return super.getBakedModel(location, transform, textureGetter);
+    }
+
+    private void bakeTopLevelModels(Function<RenderMaterial, TextureAtlasSprite> textureGetter)
+    {
+        int threads = Runtime.getRuntime().availableProcessors() - 1;
+        // Baking up front on a single thread only moves the work, the vanilla loop is just as fast
+        if (threads < 2)
+            return;
+        List<ResourceLocation> locations = new ArrayList<>(topUnbakedModels.keySet());
+        Map<ResourceLocation, Long> modelTimes = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+
+        ForkJoinPool pool = new ForkJoinPool(threads, ModelLoader::newBakeWorkerThread, null, false);
+        preBaking = true;
+        try
+        {
+            pool.submit(() -> locations.parallelStream().forEach(location -> bakeTopLevelModel(location, textureGetter, modelTimes))).get();
+        }
+        catch (InterruptedException | ExecutionException e)
+        {
+            // Whatever did not get baked is baked by the vanilla loop, which also reports the errors
+            LOGGER.error(MODELLOADING, "Parallel model baking failed", e);
+        }
+        finally
+        {
+            preBaking = false;
+            pool.shutdown();
+        }
+
+        LOGGER.info(MODELLOADING, "Baked {} models in {} ms using {} threads", locations.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), threads);
+        reportBakeTimes(modelTimes);
+    }
+
+    private static ForkJoinWorkerThread newBakeWorkerThread(ForkJoinPool pool)
+    {
+        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        thread.setName("model-baking-worker-" + thread.getPoolIndex());
+        // The pool is created from the thread reloading resources, the workers need the same class loader
+        thread.setContextClassLoader(Thread.currentThread().getContextClassLoader());
+        return thread;
+    }
+
+    private void bakeTopLevelModel(ResourceLocation location, Function<RenderMaterial, TextureAtlasSprite> textureGetter, Map<ResourceLocation, Long> modelTimes)
+    {
+        long start = System.nanoTime();
+        try
+        {
+            IBakedModel model = super.getBakedModel(location, ModelRotation.X0_Y0, textureGetter);
+            if (model != null)
+                preBakedModels.put(location, model);
+        }
+        catch (Exception e)
+        {
+            // Reported when the vanilla loop asks for the model
+            preBakedModels.put(location, e);
+        }
+        modelTimes.put(location, System.nanoTime() - start);
+    }
+
+    private void reportBakeTimes(Map<ResourceLocation, Long> modelTimes)
+    {
+        Map<String, Long> loaderTimes = new HashMap<>();
+        modelTimes.forEach((location, time) -> loaderTimes.merge(getLoaderName(topUnbakedModels.get(location)), time, Long::sum));
+
+        LOGGER.debug(MODELLOADING, "Slowest model loaders:");
+        loaderTimes.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .forEach(e -> LOGGER.debug(MODELLOADING, "  {}: {} ms", e.getKey(), TimeUnit.NANOSECONDS.toMillis(e.getValue())));
+        LOGGER.debug(MODELLOADING, "Slowest models:");
+        modelTimes.entrySet().stream()
+                .sorted(Map.Entry.<ResourceLocation, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .forEach(e -> LOGGER.debug(MODELLOADING, "  {}: {} ms", e.getKey(), TimeUnit.NANOSECONDS.toMillis(e.getValue())));
+    }
+
+    private static String getLoaderName(@Nullable IUnbakedModel model)
+    {
+        if (model instanceof BlockModel && ((BlockModel) model).customData.hasCustomGeometry())
+            return ((BlockModel) model).customData.getCustomGeometry().getClass().getName();
+        return model == null ? "unknown" : model.getClass().getName();
+    }
+
     private static Set<ResourceLocation> specialModels = new HashSet<>();
 
     /**
@@ -26,6 +26,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import javax.annotation.Nonnull;
 
@@ -70,6 +71,7 @@ import net.minecraft.state.properties.StairsShape;
 import net.minecraft.util.Direction;
 import net.minecraft.util.Direction.Axis;
 import net.minecraftforge.common.data.ExistingFileHelper;
+import net.minecraftforge.common.data.ParallelDataWriter;
 import net.minecraft.util.ResourceLocation;
 
 /**
@@ -108,8 +110,14 @@ public abstract class BlockStateProvider implements IDataProvider {
         registerStatesAndModels();
         models().generateAll(cache);
         itemModels().generateAll(cache);
+        Map<Path, Supplier<JsonObject>> outputs = new LinkedHashMap<>();
         for (Map.Entry<Block, IGeneratedBlockstate> entry : registeredBlocks.entrySet()) {
-            saveBlockState(cache, entry.getValue().toJson(), entry.getKey());
+            outputs.put(getBlockStatePath(entry.getKey()), entry.getValue()::toJson);
+        }
+        try {
+            ParallelDataWriter.saveAll(GSON, cache, outputs);
+        } catch (IOException e) {
+            LOGGER.error("Couldn't save blockstates", e);
         }
     }
 
@@ -554,16 +562,11 @@ public abstract class BlockStateProvider implements IDataProvider {
         }, TrapDoorBlock.POWERED, TrapDoorBlock.WATERLOGGED);
     }
 
-    private void saveBlockState(DirectoryCache cache, JsonObject stateJson, Block owner) {
+    private Path getBlockStatePath(Block owner) {
         ResourceLocation blockName = Preconditions.checkNotNull(owner.getRegistryName());
         Path mainOutput = generator.getOutputFolder();
         String pathSuffix = "assets/" + blockName.getNamespace() + "/blockstates/" + blockName.getPath() + ".json";
-        Path outputPath = mainOutput.resolve(pathSuffix);
-        try {
-            IDataProvider.save(GSON, cache, stateJson, outputPath);
-        } catch (IOException e) {
-            LOGGER.error("Couldn't save blockstate to {}", outputPath, e);
-        }
+        return mainOutput.resolve(pathSuffix);
     }
 
     @Nonnull
@@ -22,14 +22,17 @@ package net.minecraftforge.client.model.generators;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 
 import net.minecraft.data.DataGenerator;
 import net.minecraft.data.DirectoryCache;
@@ -38,6 +41,7 @@ import net.minecraft.resources.ResourcePackType;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.common.data.ExistingFileHelper;
 import net.minecraftforge.common.data.ExistingFileHelper.ResourceType;
+import net.minecraftforge.common.data.ParallelDataWriter;
 
 public abstract class ModelProvider<T extends ModelBuilder<T>> implements IDataProvider {
 
@@ -370,13 +374,14 @@ public abstract class ModelProvider<T extends ModelBuilder<T>> implements IDataP
     }
 
     protected void generateAll(DirectoryCache cache) {
+        Map<Path, Supplier<JsonObject>> outputs = new LinkedHashMap<>();
         for (T model : generatedModels.values()) {
-            Path target = getPath(model);
-            try {
-                IDataProvider.save(GSON, cache, model.toJson(), target);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
+            outputs.put(getPath(model), model::toJson);
+        }
+        try {
+            ParallelDataWriter.saveAll(GSON, cache, outputs);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -16,82 +16,376 @@
  * License along with this library; if not, write to the Free Software
  * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
  */
-
 package net.minecraftforge.client.model.obj;
 
-import com.google.common.base.Charsets;
-import joptsimple.internal.Strings;
+import com.google.common.io.ByteStreams;
 import net.minecraft.resources.IResource;
 
 import javax.annotation.Nullable;
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.List;
 
+/**
+ * Splits OBJ and MTL files into lines of tokens separated by spaces and tabs.
+ *
+ * The resource is decoded into a single char buffer, and tokens are kept as ranges of that buffer.
+ * Numbers can be read straight from those ranges with {@link #getFloat} and {@link #getInt},
+ * so the parsers only create strings for the tokens they keep, like names.
+ */
 public class LineReader implements AutoCloseable
 {
-    InputStreamReader lineStream;
-    BufferedReader lineReader;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final IResource resource;
+    private char[] buffer;
+    private int length;
+    private int position;
+
+    private int[] tokenStarts = new int[16];
+    private int[] tokenEnds = new int[16];
+    private int tokenCount;
 
     public LineReader(IResource resource)
     {
-        this.lineStream = new InputStreamReader(resource.getInputStream(), Charsets.UTF_8);
-        this.lineReader = new BufferedReader(lineStream);
+        this.resource = resource;
+    }
+
+    private void load() throws IOException
+    {
+        if (buffer != null)
+            return;
+        try (InputStream stream = resource.getInputStream())
+        {
+            CharBuffer chars = StandardCharsets.UTF_8.decode(ByteBuffer.wrap(ByteStreams.toByteArray(stream)));
+            buffer = chars.array();
+            length = chars.limit();
+        }
+    }
+
+    /**
+     * Reads the next line that has any tokens, skipping empty lines and comments.
+     *
+     * @return false once the end of the resource is reached
+     */
+    public boolean nextLine() throws IOException
+    {
+        return readLine(true) >= 0;
     }
 
     @Nullable
     public String[] readAndSplitLine(boolean ignoreEmptyLines) throws IOException
     {
-        //noinspection LoopConditionNotUpdatedInsideLoop
+        int count = readLine(ignoreEmptyLines);
+        if (count < 0)
+            return null;
+
+        String[] lineParts = new String[count];
+        for (int i = 0; i < count; i++)
+            lineParts[i] = getToken(i);
+        return lineParts;
+    }
+
+    private int readLine(boolean ignoreEmptyLines) throws IOException
+    {
+        load();
         do
         {
-            String currentLine = lineReader.readLine();
-            if (currentLine == null)
-                return null;
-
-            List<String> lineParts = new ArrayList<>();
+            tokenCount = 0;
+            if (position >= length)
+                return -1;
 
-            if (currentLine.startsWith("#"))
-                currentLine = "";
+            int lineStart = position;
+            int lineEnd = nextLineEnd();
 
-            if (currentLine.length() > 0)
+            if (lineEnd > lineStart && buffer[lineStart] != '#')
             {
-
                 boolean hasContinuation;
                 do
                 {
-                    hasContinuation = currentLine.endsWith("\\");
-                    String tmp = hasContinuation ? currentLine.substring(0, currentLine.length() - 1) : currentLine;
-
-                    Arrays.stream(tmp.split("[\t ]+")).filter(s -> !Strings.isNullOrEmpty(s)).forEach(lineParts::add);
+                    hasContinuation = buffer[lineEnd - 1] == '\\';
+                    tokenize(lineStart, hasContinuation ? lineEnd - 1 : lineEnd);
 
                     if (hasContinuation)
                     {
-                        currentLine = lineReader.readLine();
-                        if (currentLine == null)
+                        if (position >= length)
                             break;
 
-                        if (currentLine.length() == 0 || currentLine.startsWith("#"))
+                        lineStart = position;
+                        lineEnd = nextLineEnd();
+                        if (lineEnd == lineStart || buffer[lineStart] == '#')
                             break;
                     }
                 } while (hasContinuation);
             }
 
-            if (lineParts.size() > 0)
-                return lineParts.toArray(new String[0]);
+            if (tokenCount > 0)
+                return tokenCount;
         }
         while (ignoreEmptyLines);
 
-        return new String[0];
+        return 0;
+    }
+
+    /**
+     * Moves past the current line and its terminator.
+     *
+     * @return The end of the current line, excluding the terminator
+     */
+    private int nextLineEnd()
+    {
+        int end = position;
+        while (end < length && buffer[end] != '\n' && buffer[end] != '\r')
+            end++;
+        position = end;
+        if (position < length && buffer[position] == '\r')
+            position++;
+        if (position < length && buffer[position] == '\n')
+            position++;
+        return end;
+    }
+
+    private void tokenize(int start, int end)
+    {
+        int i = start;
+        while (i < end)
+        {
+            while (i < end && (buffer[i] == ' ' || buffer[i] == '\t'))
+                i++;
+            if (i >= end)
+                break;
+            int tokenStart = i;
+            while (i < end && buffer[i] != ' ' && buffer[i] != '\t')
+                i++;
+
+            if (tokenCount == tokenStarts.length)
+            {
+                tokenStarts = Arrays.copyOf(tokenStarts, tokenCount * 2);
+                tokenEnds = Arrays.copyOf(tokenEnds, tokenCount * 2);
+            }
+            tokenStarts[tokenCount] = tokenStart;
+            tokenEnds[tokenCount] = i;
+            tokenCount++;
+        }
+    }
+
+    /**
+     * @return The number of tokens on the current line.
+     */
+    public int getTokenCount()
+    {
+        return tokenCount;
+    }
+
+    public String getToken(int token)
+    {
+        checkToken(token);
+        return new String(buffer, tokenStarts[token], tokenEnds[token] - tokenStarts[token]);
+    }
+
+    /**
+     * @return The tokens from the given one up to the end of the line, separated by single spaces.
+     */
+    public String joinTokens(int from)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < tokenCount; i++)
+        {
+            if (i > from)
+                builder.append(' ');
+            builder.append(buffer, tokenStarts[i], tokenEnds[i] - tokenStarts[i]);
+        }
+        return builder.toString();
+    }
+
+    public boolean tokenEquals(int token, String value)
+    {
+        checkToken(token);
+        int start = tokenStarts[token];
+        int len = tokenEnds[token] - start;
+        if (len != value.length())
+            return false;
+        for (int i = 0; i < len; i++)
+        {
+            if (buffer[start + i] != value.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return The candidate equal to the given token, or an empty string if there is none.
+     */
+    public String matchToken(int token, String... candidates)
+    {
+        for (String candidate : candidates)
+        {
+            if (tokenEquals(token, candidate))
+                return candidate;
+        }
+        return "";
+    }
+
+    /**
+     * @return The token parsed as a float, or the default value if the line has no such token.
+     * @throws NumberFormatException if the token is not a number
+     */
+    public float getFloat(int token, float defaultValue)
+    {
+        return token < tokenCount ? parseFloat(tokenStarts[token], tokenEnds[token]) : defaultValue;
+    }
+
+    /**
+     * @throws NumberFormatException if the token is not a number
+     */
+    public int getInt(int token)
+    {
+        checkToken(token);
+        return parseInt(tokenStarts[token], tokenEnds[token]);
+    }
+
+    /**
+     * Splits a token at each '/' and parses the parts as ints, the way face vertices are written.
+     * Empty parts are read as 0, except trailing ones which are dropped like {@link String#split(String)} does.
+     * Parts that do not fit are ignored.
+     *
+     * @return The number of parts read into the array.
+     * @throws NumberFormatException if a part is not a number
+     */
+    public int getIndices(int token, int[] indices)
+    {
+        checkToken(token);
+        int end = tokenEnds[token];
+        int count = 0;
+        int filled = 0;
+        int partStart = tokenStarts[token];
+        while (count < indices.length)
+        {
+            int partEnd = partStart;
+            while (partEnd < end && buffer[partEnd] != '/')
+                partEnd++;
+            if (partEnd == partStart)
+                indices[count++] = 0;
+            else
+            {
+                indices[count++] = parseInt(partStart, partEnd);
+                filled = count;
+            }
+            if (partEnd >= end)
+                break;
+            partStart = partEnd + 1;
+        }
+        return filled;
+    }
+
+    private void checkToken(int token)
+    {
+        if (token < 0 || token >= tokenCount)
+            throw new IndexOutOfBoundsException("Token " + token + " out of bounds for line with " + tokenCount + " tokens");
+    }
+
+    private int parseInt(int start, int end)
+    {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+'))
+            negative = buffer[i++] == '-';
+
+        long value = 0;
+        if (i == end || end - i > 10)
+            return Integer.parseInt(new String(buffer, start, end - start));
+        for (; i < end; i++)
+        {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9)
+                return Integer.parseInt(new String(buffer, start, end - start));
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            return Integer.parseInt(new String(buffer, start, end - start));
+        return (int) value;
+    }
+
+    private float parseFloat(int start, int end)
+    {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer[i] == '-' || buffer[i] == '+'))
+            negative = buffer[i++] == '-';
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigits = false;
+        for (; i < end && buffer[i] >= '0' && buffer[i] <= '9'; i++)
+        {
+            anyDigits = true;
+            if (digits < 18)
+            {
+                mantissa = mantissa * 10 + (buffer[i] - '0');
+                if (mantissa != 0)
+                    digits++;
+            }
+            else
+            {
+                exponent++;
+            }
+        }
+        if (i < end && buffer[i] == '.')
+        {
+            for (i++; i < end && buffer[i] >= '0' && buffer[i] <= '9'; i++)
+            {
+                anyDigits = true;
+                if (digits < 18)
+                {
+                    mantissa = mantissa * 10 + (buffer[i] - '0');
+                    if (mantissa != 0)
+                        digits++;
+                    exponent--;
+                }
+            }
+        }
+        if (anyDigits && i < end && (buffer[i] == 'e' || buffer[i] == 'E'))
+        {
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (buffer[i] == '-' || buffer[i] == '+'))
+                negativeExponent = buffer[i++] == '-';
+            int explicitExponent = 0;
+            boolean anyExponentDigits = false;
+            for (; i < end && buffer[i] >= '0' && buffer[i] <= '9' && explicitExponent < 10000; i++)
+            {
+                anyExponentDigits = true;
+                explicitExponent = explicitExponent * 10 + (buffer[i] - '0');
+            }
+            if (!anyExponentDigits)
+                anyDigits = false;
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        // anything unusual (NaN, Infinity, hex floats, type suffixes, huge exponents) or malformed is left to the JDK
+        if (!anyDigits || i != end || exponent < -300 || exponent > 300)
+            return Float.parseFloat(new String(buffer, start, end - start));
+
+        double value = mantissa;
+        if (exponent < 0)
+            value /= -exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[-exponent] : Math.pow(10, -exponent);
+        else if (exponent > 0)
+            value *= exponent < POWERS_OF_TEN.length ? POWERS_OF_TEN[exponent] : Math.pow(10, exponent);
+        return (float) (negative ? -value : value);
     }
 
     @Override
     public void close() throws Exception
     {
-        lineReader.close();
-        lineStream.close();
+        // the stream is closed as soon as it has been read, the resource belongs to the caller
+        buffer = null;
     }
 }
@@ -19,7 +19,6 @@
 
 package net.minecraftforge.client.model.obj;
 
-import com.google.common.collect.Maps;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonObject;
 import net.minecraft.client.Minecraft;
@@ -33,15 +32,17 @@ import javax.annotation.Nullable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class OBJLoader implements IModelLoader<OBJModel>
 {
     public static OBJLoader INSTANCE = new OBJLoader();
 
-    private final Map<OBJModel.ModelSettings, OBJModel> modelCache = Maps.newHashMap();
-    private final Map<ResourceLocation, MaterialLibrary> materialCache = Maps.newHashMap();
+    // Models may be read from several threads at once while models load
+    private final Map<OBJModel.ModelSettings, OBJModel> modelCache = new ConcurrentHashMap<>();
+    private final Map<ResourceLocation, MaterialLibrary> materialCache = new ConcurrentHashMap<>();
 
-    private IResourceManager manager = Minecraft.getInstance().getResourceManager();
+    private volatile IResourceManager manager = Minecraft.getInstance().getResourceManager();
 
     @Override
     public void onResourceManagerReload(IResourceManager resourceManager)
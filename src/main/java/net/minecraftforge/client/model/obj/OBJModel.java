@@ -23,7 +23,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import joptsimple.internal.Strings;
 import net.minecraft.client.renderer.model.*;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.VertexFormatElement;
@@ -50,6 +49,7 @@ import java.util.stream.Collectors;
 
 public class OBJModel implements IMultipartModelGeometry<OBJModel>
 {
+    private static final String[] KEYWORDS = {"mtllib", "usemtl", "v", "vt", "vn", "vc", "f", "s", "g", "o"};
     private static Vector4f COLOR_WHITE = new Vector4f(1, 1, 1, 1);
     private static Vector2f[] DEFAULT_COORDS = {
             new Vector2f(0, 0),
@@ -112,17 +112,17 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
                 mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(modelDomain, modelPath + lib));
         }
 
-        String[] line;
-        while((line = reader.readAndSplitLine(true)) != null)
+        int[] vertexIndices = new int[4];
+        while(reader.nextLine())
         {
-            switch(line[0])
+            switch(reader.matchToken(0, KEYWORDS))
             {
                 case "mtllib": // Loads material library
                 {
                     if (materialLibraryOverrideLocation != null)
                         break;
 
-                    String lib = line[1];
+                    String lib = reader.getToken(1);
                     if (lib.contains(":"))
                         mtllib = OBJLoader.INSTANCE.loadMaterialLibrary(new ResourceLocation(lib));
                     else
@@ -132,7 +132,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "usemtl": // Sets the current material (starts new mesh)
                 {
-                    String mat = Strings.join(Arrays.copyOfRange(line, 1, line.length), " ");
+                    String mat = reader.joinTokens(1);
                     MaterialLibrary.Material newMat = mtllib.getMaterial(mat);
                     if (!Objects.equals(newMat, currentMat))
                     {
@@ -151,16 +151,26 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
                 }
 
                 case "v": // Vertex
-                    positions.add(parseVector4To3(line));
+                {
+                    float x = reader.getFloat(1, 0), y = reader.getFloat(2, 0), z = reader.getFloat(3, 0);
+                    if (reader.getTokenCount() > 4)
+                    {
+                        float w = reader.getFloat(4, 1);
+                        x /= w;
+                        y /= w;
+                        z /= w;
+                    }
+                    positions.add(new Vector3f(x, y, z));
                     break;
+                }
                 case "vt": // Vertex texcoord
-                    texCoords.add(parseVector2(line));
+                    texCoords.add(new Vector2f(reader.getFloat(1, 0), reader.getFloat(2, 0)));
                     break;
                 case "vn": // Vertex normal
-                    normals.add(parseVector3(line));
+                    normals.add(new Vector3f(reader.getFloat(1, 0), reader.getFloat(2, 0), reader.getFloat(3, 0)));
                     break;
                 case "vc": // Vertex color (non-standard)
-                    colors.add(parseVector4(line));
+                    colors.add(new Vector4f(reader.getFloat(1, 0), reader.getFloat(2, 0), reader.getFloat(3, 0), reader.getFloat(4, 1)));
                     break;
 
                 case "f": // Face
@@ -183,12 +193,10 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
                         }
                     }
 
-                    int[][] vertices = new int[line.length-1][];
+                    int[][] vertices = new int[reader.getTokenCount()-1][];
                     for(int i=0;i<vertices.length;i++)
                     {
-                        String vertexData = line[i+1];
-                        String[] vertexParts = vertexData.split("/");
-                        int[] vertex = Arrays.stream(vertexParts).mapToInt(num -> Strings.isNullOrEmpty(num) ? 0 : Integer.parseInt(num)).toArray();
+                        int[] vertex = Arrays.copyOf(vertexIndices, reader.getIndices(i+1, vertexIndices));
                         if (vertex[0] < 0) vertex[0] = positions.size() + vertex[0];
                         else vertex[0]--;
                         if (vertex.length > 1)
@@ -216,7 +224,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "s": // Smoothing group (starts new mesh)
                 {
-                    String smoothingGroup = "off".equals(line[1]) ? null : line[1];
+                    String smoothingGroup = reader.tokenEquals(1, "off") ? null : reader.getToken(1);
                     if (!Objects.equals(currentSmoothingGroup, smoothingGroup))
                     {
                         currentSmoothingGroup = smoothingGroup;
@@ -235,7 +243,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "g":
                 {
-                    String name = line[1];
+                    String name = reader.getToken(1);
                     if (objAboveGroup)
                     {
                         currentObject = new ModelObject(currentGroup.name() + "/" + name);
@@ -254,7 +262,7 @@ public class OBJModel implements IMultipartModelGeometry<OBJModel>
 
                 case "o":
                 {
-                    String name = line[1];
+                    String name = reader.getToken(1);
                     if (objAboveGroup || currentGroup == null)
                     {
                         objAboveGroup = true;
@@ -53,7 +53,7 @@ public class ForgeBlockModelRenderer extends BlockModelRenderer
     @Override
     public boolean renderModelFlat(IBlockDisplayReader world, IBakedModel model, BlockState state, BlockPos pos, MatrixStack matrixStack, IVertexBuilder buffer, boolean checkSides, Random rand, long seed, int combinedOverlayIn, IModelData modelData)
     {
-        if(ForgeConfig.CLIENT.experimentalForgeLightPipelineEnabled.get())
+        if(ForgeConfig.CLIENT.experimentalForgeLightPipelineEnabled.getAsBoolean())
         {
             VertexBufferConsumer consumer = consumerFlat.get();
             consumer.setBuffer(buffer);
@@ -73,7 +73,7 @@ public class ForgeBlockModelRenderer extends BlockModelRenderer
     @Override
     public boolean renderModelSmooth(IBlockDisplayReader world, IBakedModel model, BlockState state, BlockPos pos, MatrixStack matrixStack, IVertexBuilder buffer, boolean checkSides, Random rand, long seed, int combinedOverlayIn, IModelData modelData)
     {
-        if(ForgeConfig.CLIENT.experimentalForgeLightPipelineEnabled.get())
+        if(ForgeConfig.CLIENT.experimentalForgeLightPipelineEnabled.getAsBoolean())
         {
             VertexBufferConsumer consumer = consumerSmooth.get();
             consumer.setBuffer(buffer);
@@ -104,7 +104,7 @@ public class ForgeBlockModelRenderer extends BlockModelRenderer
             empty = false;
             for(BakedQuad quad : quads)
             {
-                quad.pipe(lighter);
+                if(!lighter.processPackedQuad(quad)) quad.pipe(lighter);
             }
         }
         for(Direction side : Direction.values())
@@ -119,7 +119,7 @@ public class ForgeBlockModelRenderer extends BlockModelRenderer
                     empty = false;
                     for(BakedQuad quad : quads)
                     {
-                        quad.pipe(lighter);
+                        if(!lighter.processPackedQuad(quad)) quad.pipe(lighter);
                     }
                 }
             }
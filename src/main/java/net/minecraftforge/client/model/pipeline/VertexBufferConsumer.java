@@ -87,6 +87,11 @@ public class VertexBufferConsumer implements IVertexConsumer
         this.renderer = buffer;
     }
 
+    public IVertexBuilder getBuffer()
+    {
+        return renderer;
+    }
+
     @Override
     public void setQuadTint(int tint) {}
     @Override
@@ -25,10 +25,12 @@ import java.util.Objects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.mojang.blaze3d.matrix.MatrixStack;
+import com.mojang.blaze3d.vertex.IVertexBuilder;
 
 import net.minecraft.block.BlockState;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.color.BlockColors;
+import net.minecraft.client.renderer.model.BakedQuad;
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.renderer.vertex.DefaultVertexFormats;
 import net.minecraft.client.renderer.vertex.VertexFormat;
@@ -62,10 +64,19 @@ public class VertexLighterFlat extends QuadGatheringTransformer
 
     protected VertexFormat baseFormat;
     protected MatrixStack.Entry pose;
-    
+
+    // Subclasses may hook into any step of the per-element pipeline, so only the Forge lighters light packed data directly
+    private final boolean packedLighting;
+    private final float[] packedNormal = new float[4];
+    private final float[] packedLightmap = new float[2];
+    private final float[] packedColor = new float[4];
+    private final Vector4f packedPos = new Vector4f();
+    private final Vector3f packedNorm = new Vector3f();
+
     public VertexLighterFlat(BlockColors colors)
     {
         this.blockInfo = new BlockInfo(colors);
+        this.packedLighting = getClass() == VertexLighterFlat.class || getClass() == VertexLighterSmoothAo.class;
     }
 
     @Override
@@ -261,6 +272,106 @@ public class VertexLighterFlat extends QuadGatheringTransformer
         tint = -1;
     }
 
+    /**
+     * Lights a quad straight from its packed {@link DefaultVertexFormats#BLOCK} vertex data and writes the result
+     * into the parent's buffer, without unpacking and passing on every vertex element one at a time.
+     * The result is the same as piping the quad into this lighter.
+     *
+     * @return false if the quad or the parent can not be handled this way, in which case it has to be piped instead.
+     */
+    public boolean processPackedQuad(BakedQuad quad)
+    {
+        if (!packedLighting || parent == null || parent.getClass() != VertexBufferConsumer.class)
+            return false;
+        int[] data = quad.getVertexData();
+        int stride = DefaultVertexFormats.BLOCK.getIntegerSize();
+        if (data.length < stride * 4)
+            return false;
+
+        IVertexBuilder buffer = ((VertexBufferConsumer) parent).getBuffer();
+        int tint = quad.hasTintIndex() ? quad.getTintIndex() : -1;
+        int multiplier = tint != -1 ? blockInfo.getColorMultiplier(tint) : -1;
+        boolean diffuse = quad.applyDiffuseLighting();
+
+        float[] normal = packedNormal;
+        float[] lightmap = packedLightmap;
+        float[] color = packedColor;
+
+        // same rule as processQuad: the quad's own normals are used if the first one is set, otherwise the face normal is generated
+        boolean generateNormal = (data[7] & 0xFFFFFF) == 0;
+        if (generateNormal)
+        {
+            Vector3f v1 = new Vector3f(Float.intBitsToFloat(data[stride * 3]), Float.intBitsToFloat(data[stride * 3 + 1]), Float.intBitsToFloat(data[stride * 3 + 2]));
+            Vector3f t = new Vector3f(Float.intBitsToFloat(data[stride]), Float.intBitsToFloat(data[stride + 1]), Float.intBitsToFloat(data[stride + 2]));
+            Vector3f v2 = new Vector3f(Float.intBitsToFloat(data[stride * 2]), Float.intBitsToFloat(data[stride * 2 + 1]), Float.intBitsToFloat(data[stride * 2 + 2]));
+            v1.sub(t);
+            t.set(Float.intBitsToFloat(data[0]), Float.intBitsToFloat(data[1]), Float.intBitsToFloat(data[2]));
+            v2.sub(t);
+            v2.cross(v1);
+            v2.normalize();
+            normal[0] = v2.getX();
+            normal[1] = v2.getY();
+            normal[2] = v2.getZ();
+            normal[3] = 0;
+        }
+
+        for (int v = 0; v < 4; v++)
+        {
+            int o = v * stride;
+            float px = Float.intBitsToFloat(data[o]);
+            float py = Float.intBitsToFloat(data[o + 1]);
+            float pz = Float.intBitsToFloat(data[o + 2]);
+
+            if (!generateNormal)
+            {
+                int normalBits = data[o + 7];
+                normal[0] = (byte) normalBits / 127f;
+                normal[1] = (byte) (normalBits >> 8) / 127f;
+                normal[2] = (byte) (normalBits >> 16) / 127f;
+                normal[3] = 0;
+            }
+
+            float x = px - .5f + normal[0] * .5f;
+            float y = py - .5f + normal[1] * .5f;
+            float z = pz - .5f + normal[2] * .5f;
+
+            int lightBits = data[o + 6];
+            lightmap[0] = (short) lightBits / (float) LIGHTMAP_PACKING_FACTOR;
+            lightmap[1] = (short) (lightBits >>> 16) / (float) LIGHTMAP_PACKING_FACTOR;
+            float blockLight = lightmap[0] * LIGHTMAP_RESCALE, skyLight = lightmap[1] * LIGHTMAP_RESCALE;
+            updateLightmap(normal, lightmap, x, y, z);
+            if(blockLight > lightmap[0]) lightmap[0] = blockLight;
+            if(skyLight > lightmap[1]) lightmap[1] = skyLight;
+
+            int colorBits = data[o + 3];
+            color[0] = (colorBits & 0xFF) / 255f;
+            color[1] = (colorBits >> 8 & 0xFF) / 255f;
+            color[2] = (colorBits >> 16 & 0xFF) / 255f;
+            color[3] = (colorBits >>> 24) / 255f;
+            updateColor(normal, color, x, y, z, tint, multiplier);
+            if(diffuse)
+            {
+                float d = LightUtil.diffuseLight(normal[0], normal[1], normal[2]);
+                color[0] *= d;
+                color[1] *= d;
+                color[2] *= d;
+            }
+
+            packedPos.set(px, py, pz, 1);
+            packedPos.transform(pose.getMatrix());
+            packedNorm.set(normal[0], normal[1], normal[2]);
+            packedNorm.transform(pose.getNormal());
+
+            buffer.pos(packedPos.getX(), packedPos.getY(), packedPos.getZ());
+            buffer.color(color[0], color[1], color[2], color[3]);
+            buffer.tex(Float.intBitsToFloat(data[o + 4]), Float.intBitsToFloat(data[o + 5]));
+            buffer.lightmap((int) (lightmap[0] * 0xF0), (int) (lightmap[1] * 0xF0));
+            buffer.normal(packedNorm.getX(), packedNorm.getY(), packedNorm.getZ());
+            buffer.endVertex();
+        }
+        return true;
+    }
+
     protected void updateLightmap(float[] normal, float[] lightmap, float x, float y, float z)
     {
         final float e1 = 1f - 1e-2f;
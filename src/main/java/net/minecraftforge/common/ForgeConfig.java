@@ -23,6 +23,8 @@ import static net.minecraftforge.fml.loading.LogMarkers.FORGEMOD;
 
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.config.ModConfig;
+import net.minecraftforge.common.util.FakePlayerFactory;
+import net.minecraftforge.server.timings.TimeTracker;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 
@@ -50,6 +52,10 @@ public class ForgeConfig
 
         public final BooleanValue fixAdvancementLoading;
 
+        public final BooleanValue continuousTickTracking;
+
+        public final IntValue maxFakePlayersPerWorld;
+
         Server(ForgeConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                    .push("server");
@@ -109,6 +115,16 @@ public class ForgeConfig
                     .translation("forge.configgui.fixAdvancementLoading")
                     .define("fixAdvancementLoading", true);
 
+            continuousTickTracking = builder
+                    .comment("Continuously aggregate entity and tile entity update times per type and chunk, viewable with '/forge track types' and '/forge track chunks'. Has a small constant cost per update.")
+                    .translation("forge.configgui.continuousTickTracking")
+                    .define("continuousTickTracking", false);
+
+            maxFakePlayersPerWorld = builder
+                    .comment("The maximum number of fake players kept per world. When more are needed, the ones that were not used for the longest are dropped and created again on their next use.")
+                    .translation("forge.configgui.maxFakePlayersPerWorld")
+                    .defineInRange("maxFakePlayersPerWorld", FakePlayerFactory.DEFAULT_MAX_PLAYERS_PER_WORLD, 1, Integer.MAX_VALUE);
+
             builder.pop();
         }
     }
@@ -154,6 +170,8 @@ public class ForgeConfig
 
         public final BooleanValue showLoadWarnings;
 
+        public final BooleanValue parallelModelBaking;
+
         public final BooleanValue useCombinedDepthStencilAttachment;
 
         Client(ForgeConfigSpec.Builder builder) {
@@ -201,6 +219,12 @@ public class ForgeConfig
                 .translation("forge.configgui.showLoadWarnings")
                 .define("showLoadWarnings", true);
 
+            parallelModelBaking = builder
+                .comment("Bake block and item models on several threads during resource reloads.",
+                        "Speeds up reloads with many models, but model loaders from mods that are not thread safe may break.")
+                .translation("forge.configgui.parallelModelBaking")
+                .define("parallelModelBaking", false);
+
             useCombinedDepthStencilAttachment = builder
                     .comment("Set to true to use a combined DEPTH_STENCIL attachment instead of two separate ones.")
                     .translation("forge.configgui.useCombinedDepthStencilAttachment")
@@ -239,11 +263,25 @@ public class ForgeConfig
     @SubscribeEvent
     public static void onLoad(final ModConfig.Loading configEvent) {
         LogManager.getLogger().debug(FORGEMOD, "Loaded forge config file {}", configEvent.getConfig().getFileName());
+        if (configEvent.getConfig().getSpec() == serverSpec) {
+            updateTickTracking();
+            FakePlayerFactory.setMaxPlayersPerWorld(SERVER.maxFakePlayersPerWorld.get());
+        }
     }
 
     @SubscribeEvent
     public static void onFileChange(final ModConfig.Reloading configEvent) {
         LogManager.getLogger().debug(FORGEMOD, "Forge config just got changed on the file system!");
+        if (configEvent.getConfig().getSpec() == serverSpec) {
+            updateTickTracking();
+            FakePlayerFactory.setMaxPlayersPerWorld(SERVER.maxFakePlayersPerWorld.get());
+        }
+    }
+
+    private static void updateTickTracking()
+    {
+        TimeTracker.ENTITY_UPDATE.setContinuous(SERVER.continuousTickTracking.getAsBoolean());
+        TimeTracker.TILE_ENTITY_UPDATE.setContinuous(SERVER.continuousTickTracking.getAsBoolean());
     }
 
     //General
@@ -35,7 +35,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
 import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -70,6 +74,7 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
 
     private UnmodifiableConfig values;
     private Config childConfig;
+    private volatile int cacheGeneration = 0;
 
     private boolean isCorrecting = false;
 
@@ -90,6 +95,15 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
                 ((FileConfig) config).save();
             }
         }
+        afterReload();
+    }
+
+    /**
+     * Drops the values cached by the {@link ConfigValue}s of this spec, so they are read from the config again.
+     * Called when the config is loaded or reloaded; call it after changing the underlying config directly.
+     */
+    public synchronized void afterReload() {
+        this.cacheGeneration++;
     }
 
     public boolean isCorrecting() {
@@ -695,6 +709,8 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         private final Supplier<T> defaultSupplier;
 
         private ForgeConfigSpec spec;
+        private volatile int cacheGeneration = -1;
+        private T cachedValue;
 
         ConfigValue(Builder parent, List<String> path, Supplier<T> defaultSupplier)
         {
@@ -709,14 +725,40 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             return Lists.newArrayList(path);
         }
 
+        /**
+         * Returns the value from the config. The value is cached until the config is {@link ForgeConfigSpec#afterReload() reloaded},
+         * so this is cheap to call often.
+         */
         public T get()
         {
+            if (isCached())
+                return cachedValue;
             Preconditions.checkNotNull(spec, "Cannot get config value before spec is built");
             if (spec.childConfig == null)
                 return defaultSupplier.get();
-            return getRaw(spec.childConfig, path, defaultSupplier);
+            synchronized (this)
+            {
+                // Read the generation first, so a reload while we read the value leaves the cache stale rather than wrong
+                int generation = spec.cacheGeneration;
+                T ret = getRaw(spec.childConfig, path, defaultSupplier);
+                this.cachedValue = ret;
+                cache(ret);
+                this.cacheGeneration = generation;
+                return ret;
+            }
         }
 
+        final boolean isCached()
+        {
+            ForgeConfigSpec spec = this.spec;
+            return spec != null && this.cacheGeneration == spec.cacheGeneration;
+        }
+
+        /**
+         * Called with each newly read value before it is marked as cached, for typed values to keep an unboxed copy.
+         */
+        void cache(T value) {}
+
         protected T getRaw(Config config, List<String> path, Supplier<T> defaultSupplier)
         {
             return config.getOrElse(path, defaultSupplier);
@@ -739,19 +781,36 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             Preconditions.checkNotNull(spec, "Cannot set config value before spec is built");
             Preconditions.checkNotNull(spec.childConfig, "Cannot set config value without assigned Config object present");
             spec.childConfig.set(path, value);
+            spec.afterReload();
         }
     }
 
-    public static class BooleanValue extends ConfigValue<Boolean>
+    public static class BooleanValue extends ConfigValue<Boolean> implements BooleanSupplier
     {
+        private boolean cachedBoolean;
+
         BooleanValue(Builder parent, List<String> path, Supplier<Boolean> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
         }
+
+        @Override
+        void cache(Boolean value)
+        {
+            this.cachedBoolean = value != null && value;
+        }
+
+        @Override
+        public boolean getAsBoolean()
+        {
+            return isCached() ? cachedBoolean : get();
+        }
     }
 
-    public static class IntValue extends ConfigValue<Integer>
+    public static class IntValue extends ConfigValue<Integer> implements IntSupplier
     {
+        private int cachedInt;
+
         IntValue(Builder parent, List<String> path, Supplier<Integer> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
@@ -762,10 +821,24 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         {
             return config.getIntOrElse(path, () -> defaultSupplier.get());
         }
+
+        @Override
+        void cache(Integer value)
+        {
+            this.cachedInt = value;
+        }
+
+        @Override
+        public int getAsInt()
+        {
+            return isCached() ? cachedInt : get();
+        }
     }
 
-    public static class LongValue extends ConfigValue<Long>
+    public static class LongValue extends ConfigValue<Long> implements LongSupplier
     {
+        private long cachedLong;
+
         LongValue(Builder parent, List<String> path, Supplier<Long> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
@@ -776,10 +849,24 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
         {
             return config.getLongOrElse(path, () -> defaultSupplier.get());
         }
+
+        @Override
+        void cache(Long value)
+        {
+            this.cachedLong = value;
+        }
+
+        @Override
+        public long getAsLong()
+        {
+            return isCached() ? cachedLong : get();
+        }
     }
 
-    public static class DoubleValue extends ConfigValue<Double>
+    public static class DoubleValue extends ConfigValue<Double> implements DoubleSupplier
     {
+        private double cachedDouble;
+
         DoubleValue(Builder parent, List<String> path, Supplier<Double> defaultSupplier)
         {
             super(parent, path, defaultSupplier);
@@ -791,6 +878,18 @@ public class ForgeConfigSpec extends UnmodifiableConfigWrapper<UnmodifiableConfi
             Number n = config.<Number>get(path);
             return n == null ? defaultSupplier.get() : n.doubleValue();
         }
+
+        @Override
+        void cache(Double value)
+        {
+            this.cachedDouble = value;
+        }
+
+        @Override
+        public double getAsDouble()
+        {
+            return isCached() ? cachedDouble : get();
+        }
     }
 
     public static class EnumValue<T extends Enum<T>> extends ConfigValue<T>
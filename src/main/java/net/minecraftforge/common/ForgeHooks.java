@@ -406,7 +406,7 @@ public class ForgeHooks
     {
         boolean isSpectator = (entity instanceof PlayerEntity && ((PlayerEntity)entity).isSpectator());
         if (isSpectator) return false;
-        if (!ForgeConfig.SERVER.fullBoundingBoxLadders.get())
+        if (!ForgeConfig.SERVER.fullBoundingBoxLadders.getAsBoolean())
         {
             return state.isLadder(world, pos, entity);
         }
@@ -1287,7 +1287,7 @@ public class ForgeHooks
     public static List<ItemStack> modifyLoot(ResourceLocation lootTableId, List<ItemStack> generatedLoot, LootContext context) {
         context.setQueriedLootTableId(lootTableId); // In case the ID was set via copy constructor, this will be ignored: intended
         LootModifierManager man = ForgeInternalHandler.getLootModifierManager();
-        for (IGlobalLootModifier mod : man.getAllLootMods()) {
+        for (IGlobalLootModifier mod : man.getLootModsFor(context.getQueriedLootTableId())) {
             generatedLoot = mod.apply(generatedLoot, context);
         }
         return generatedLoot;
@@ -33,6 +33,8 @@ import net.minecraftforge.event.entity.EntityJoinWorldEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.world.ChunkEvent;
 import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.fml.LogicalSide;
+import net.minecraftforge.fml.network.simple.SimpleChannel;
 import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.event.TagsUpdatedEvent;
@@ -78,6 +80,15 @@ public class ForgeInternalHandler
     public void onServerTick(ServerTickEvent event)
     {
         WorldWorkerManager.tick(event.phase == TickEvent.Phase.START);
+        if (event.phase == TickEvent.Phase.END)
+            SimpleChannel.flushBatches(LogicalSide.SERVER);
+    }
+
+    @SubscribeEvent
+    public void onClientTick(ClientTickEvent event)
+    {
+        if (event.phase == TickEvent.Phase.END)
+            SimpleChannel.flushBatches(LogicalSide.CLIENT);
     }
 
     @SubscribeEvent
@@ -21,67 +21,155 @@ package net.minecraftforge.common;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Runs {@link IWorker}s in the time left over at the end of each server tick.
+ *
+ * The budget for a tick is whatever remains of the 50ms tick after the server's own work, measured with
+ * {@link System#nanoTime()}, but at least 10ms so workers still progress while the server is lagging.
+ * Within the budget workers are scheduled fairly: the worker that has received the least time relative
+ * to its {@link IWorker#getPriority() priority} runs next, so a single greedy worker can not starve the rest.
+ *
+ * Workers that declare themselves {@link IWorker#isThreadSafe() thread safe} are run on a background thread instead.
+ */
 public class WorldWorkerManager
 {
-    private static List<IWorker> workers = new ArrayList<IWorker>();
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final long TICK_TIME = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MIN_BUDGET = TimeUnit.MILLISECONDS.toNanos(10); //If ticks are lagging, give us at least 10ms to do something.
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger(1);
+    private static final ExecutorService OFF_THREAD = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "Forge World Worker #" + THREAD_COUNT.getAndIncrement());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static List<WorkerState> workers = new ArrayList<WorkerState>();
+    private static final List<WorkerState> current = new ArrayList<WorkerState>();
     private static long startTime = -1;
-    private static int index = 0;
+    private static volatile int generation = 0;
 
     public static void tick(boolean start)
     {
         if (start)
         {
-            startTime = System.currentTimeMillis();
+            startTime = System.nanoTime();
             return;
         }
 
-        index = 0;
-        IWorker task = getNext();
-        if (task == null)
+        current.clear();
+        synchronized (WorldWorkerManager.class)
+        {
+            current.addAll(workers);
+        }
+        if (current.isEmpty())
             return;
 
-        long time = 50 - (System.currentTimeMillis() - startTime);
-        if (time < 10)
-            time = 10; //If ticks are lagging, give us at least 10ms to do something.
-        time += System.currentTimeMillis();
+        long now = System.nanoTime();
+        long deadline = now + Math.max(TICK_TIME - (now - startTime), MIN_BUDGET);
+
+        for (WorkerState state : current)
+            state.yielded = false;
 
-        while (System.currentTimeMillis() < time && task != null)
+        WorkerState task = getNext();
+        while (task != null && now < deadline)
         {
-            boolean again = task.doWork();
+            boolean again = task.worker.doWork();
+
+            long end = System.nanoTime();
+            task.used += (end - now) / task.priority;
+            now = end;
 
-            if (!task.hasWork())
+            if (!task.worker.hasWork())
             {
                 remove(task);
-                task = getNext();
+                current.remove(task);
             }
             else if (!again)
             {
-                task = getNext();
+                task.yielded = true;
             }
+            task = getNext();
         }
     }
 
-    public static synchronized void addWorker(IWorker worker)
+    public static void addWorker(IWorker worker)
     {
-        workers.add(worker);
+        if (worker.isThreadSafe())
+        {
+            final int gen = generation;
+            OFF_THREAD.execute(() -> runOffThread(worker, gen));
+            return;
+        }
+
+        synchronized (WorldWorkerManager.class)
+        {
+            // Start new workers level with the least served one, so they neither starve nor get starved by existing workers.
+            long used = workers.stream().mapToLong(s -> s.used).min().orElse(0);
+            workers.add(new WorkerState(worker, used));
+        }
+    }
+
+    private static void runOffThread(IWorker worker, int gen)
+    {
+        try
+        {
+            while (gen == generation && worker.hasWork())
+            {
+                if (!worker.doWork())
+                    LockSupport.parkNanos(TICK_TIME);
+            }
+        }
+        catch (Throwable e)
+        {
+            LOGGER.error("World worker {} failed", worker, e);
+        }
     }
 
-    private static synchronized IWorker getNext()
+    private static WorkerState getNext()
     {
-        return workers.size() > index ? workers.get(index++) : null;
+        WorkerState ret = null;
+        for (WorkerState state : current)
+        {
+            if (!state.yielded && (ret == null || state.used < ret.used))
+                ret = state;
+        }
+        return ret;
     }
 
-    private static synchronized void remove(IWorker worker)
+    private static synchronized void remove(WorkerState worker)
     {
         workers.remove(worker);
-        index--;
     }
 
     //Internal only, used to clear everything when the server shuts down.
     public static synchronized void clear()
     {
         workers.clear();
+        generation++;
+    }
+
+    private static class WorkerState
+    {
+        private final IWorker worker;
+        private final int priority;
+        private long used; // Nanoseconds of work received, divided by priority
+        private boolean yielded;
+
+        private WorkerState(IWorker worker, long used)
+        {
+            this.worker = worker;
+            this.priority = Math.max(worker.getPriority(), 1);
+            this.used = used;
+        }
     }
 
     public static interface IWorker
@@ -93,5 +181,23 @@ public class WorldWorkerManager
          * Returning false will skip calling this worker until next tick.
          */
         boolean doWork();
+
+        /**
+         * The share of the tick budget this worker receives, relative to the other workers.
+         * A worker with priority 2 receives twice as much time as a worker with priority 1 while both have work.
+         */
+        default int getPriority()
+        {
+            return 1;
+        }
+
+        /**
+         * Return true if this worker does not touch any state owned by the server thread, and can thus run in the background.
+         * Thread safe workers are not bound to the tick budget, returning false from {@link #doWork()} pauses them for a tick.
+         */
+        default boolean isThreadSafe()
+        {
+            return false;
+        }
     }
 }
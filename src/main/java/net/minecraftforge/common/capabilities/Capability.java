@@ -90,6 +90,12 @@ public class Capability<T>
      */
     public String getName() { return name; }
 
+    /**
+     * @return A small, dense, unique index assigned to this capability at registration time.
+     * Used to build lookup tables keyed by capability, see {@link IIndexedCapabilityProvider}.
+     */
+    public int getIndex() { return index; }
+
     /**
      * @return An instance of the default storage handler. You can safely use this store your default implementation in NBT.
      */
@@ -146,10 +152,12 @@ public class Capability<T>
     private final String name;
     private final IStorage<T> storage;
     private final Callable<? extends T> factory;
+    private final int index;
 
-    Capability(String name, IStorage<T> storage, Callable<? extends T> factory)
+    Capability(String name, IStorage<T> storage, Callable<? extends T> factory, int index)
     {
         this.name = name;
+        this.index = index;
         this.storage = storage;
         this.factory = factory;
     }
@@ -22,8 +22,10 @@ package net.minecraftforge.common.capabilities;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.google.common.collect.Lists;
 
@@ -44,6 +46,11 @@ import net.minecraftforge.common.util.LazyOptional;
  *
  * Internally the handlers are baked into arrays for fast iteration.
  * The ResourceLocations will be used for the NBT Key when serializing.
+ *
+ * If any of the handlers implement {@link IIndexedCapabilityProvider} the
+ * dispatcher lazily builds a lookup table per side and capability holding only
+ * the handlers that may provide it, so capabilities nobody declares are
+ * answered without querying any handler.
  */
 @ParametersAreNonnullByDefault
 @MethodsReturnNonnullByDefault
@@ -53,6 +60,14 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
     private INBTSerializable<INBT>[] writers;
     private String[] names;
     private final List<Runnable> listeners;
+    private final boolean indexed;
+    // [side][capability index] -> handlers to query, filled on first request. Races only cause a recompute of the same result.
+    private ICapabilityProvider[][][] lookup;
+
+    private static final ICapabilityProvider[] NONE = new ICapabilityProvider[0];
+    private static final int SIDES = Direction.values().length + 1;
+    private static final LongAdder hashRejects = new LongAdder();
+    private static final LongAdder nbtCompares = new LongAdder();
 
     public CapabilityDispatcher(Map<ResourceLocation, ICapabilityProvider> list, List<Runnable> listeners)
     {
@@ -91,13 +106,17 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
         caps = lstCaps.toArray(new ICapabilityProvider[lstCaps.size()]);
         writers = lstWriters.toArray(new INBTSerializable[lstWriters.size()]);
         names = lstNames.toArray(new String[lstNames.size()]);
+        indexed = lstCaps.stream().anyMatch(c -> c instanceof IIndexedCapabilityProvider);
+        lookup = indexed ? new ICapabilityProvider[SIDES][][] : null;
     }
 
 
     @Override
     public <T> LazyOptional<T> getCapability(Capability<T> cap, @Nullable Direction side)
     {
-        for (ICapabilityProvider c : caps)
+        //noinspection ConstantConditions
+        final ICapabilityProvider[] candidates = indexed && cap != null ? getCandidates(cap, side) : caps;
+        for (ICapabilityProvider c : candidates)
         {
             LazyOptional<T> ret = c.getCapability(cap, side);
             //noinspection ConstantConditions
@@ -118,6 +137,41 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
         return LazyOptional.empty();
     }
 
+    private ICapabilityProvider[] getCandidates(Capability<?> cap, @Nullable Direction side)
+    {
+        final int sideIdx = side == null ? 0 : side.ordinal() + 1;
+        final int capIdx = cap.getIndex();
+        ICapabilityProvider[][] table = lookup[sideIdx];
+        if (table == null || capIdx >= table.length)
+        {
+            // Capabilities may be registered after this dispatcher was created, so grow on demand.
+            table = table == null ? new ICapabilityProvider[capIdx + 1][] : Arrays.copyOf(table, Math.max(capIdx + 1, table.length * 2));
+            lookup[sideIdx] = table;
+        }
+        ICapabilityProvider[] ret = table[capIdx];
+        if (ret == null)
+        {
+            ret = bakeCandidates(cap, side);
+            table[capIdx] = ret;
+        }
+        return ret;
+    }
+
+    private ICapabilityProvider[] bakeCandidates(Capability<?> cap, @Nullable Direction side)
+    {
+        List<ICapabilityProvider> ret = Lists.newArrayList();
+        for (ICapabilityProvider c : caps)
+        {
+            if (!(c instanceof IIndexedCapabilityProvider) || ((IIndexedCapabilityProvider)c).getProvidedCapabilities(side).contains(cap))
+                ret.add(c);
+        }
+        if (ret.isEmpty())
+            return NONE;
+        if (ret.size() == caps.length)
+            return caps;
+        return ret.toArray(new ICapabilityProvider[ret.size()]);
+    }
+
     @Override
     public CompoundNBT serializeNBT()
     {
@@ -145,9 +199,39 @@ public final class CapabilityDispatcher implements INBTSerializable<CompoundNBT>
     {                                                        // Only compares serializeable caps.
         if (other == null) return this.writers.length == 0;  // Done this way so we can do some pre-checks before doing the costly NBT serialization and compare
         if (this.writers.length == 0) return other.writers.length == 0;
+        if (this == other) return true;
+        if (Arrays.equals(this.names, other.names))
+        {
+            for (int x = 0; x < writers.length; x++)
+            {
+                if (writers[x] instanceof ICapabilityContentHash && other.writers[x] instanceof ICapabilityContentHash &&
+                    ((ICapabilityContentHash)writers[x]).getContentHash() != ((ICapabilityContentHash)other.writers[x]).getContentHash())
+                {
+                    hashRejects.increment();
+                    return false;
+                }
+            }
+        }
+        nbtCompares.increment();
         return this.serializeNBT().equals(other.serializeNBT());
     }
 
+    /**
+     * @return The number of {@link #areCompatible(CapabilityDispatcher)} calls answered by comparing {@link ICapabilityContentHash content hashes}.
+     */
+    public static long getHashRejectCount()
+    {
+        return hashRejects.sum();
+    }
+
+    /**
+     * @return The number of {@link #areCompatible(CapabilityDispatcher)} calls that had to serialize and compare both dispatchers.
+     */
+    public static long getNBTCompareCount()
+    {
+        return nbtCompares.sum();
+    }
+
     public void invalidate()
     {
         this.listeners.forEach(Runnable::run);
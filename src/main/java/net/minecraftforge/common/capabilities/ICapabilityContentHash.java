@@ -0,0 +1,39 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.capabilities;
+
+/**
+ * Optional extension for serializable capability providers attached through the
+ * AttachCapabilitiesEvent, allowing {@link CapabilityDispatcher#areCompatible(CapabilityDispatcher)}
+ * to reject mismatching providers without serializing them.
+ *
+ * The hash MUST be consistent with the provider's serialized NBT: two providers whose
+ * serializeNBT() results are equal must return the same hash. Providers that
+ * differ but share a hash are still compared through their NBT.
+ */
+public interface ICapabilityContentHash
+{
+    /**
+     * @return A hash of the state that would be written by serializeNBT().
+     * Implementations are encouraged to maintain this incrementally, or to cache it
+     * until the next mutation, so this call is cheap.
+     */
+    int getContentHash();
+}
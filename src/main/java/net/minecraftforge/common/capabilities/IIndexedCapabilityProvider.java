@@ -0,0 +1,51 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.capabilities;
+
+import java.util.Collection;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.minecraft.util.Direction;
+
+/**
+ * Optional extension of {@link ICapabilityProvider} for providers that know up front
+ * which capabilities they are able to serve.
+ *
+ * When a provider attached through the AttachCapabilitiesEvent implements this interface,
+ * the {@link CapabilityDispatcher} will only ask it for capabilities it has declared,
+ * and caches per capability and side which providers need to be queried at all.
+ * Capabilities that no provider declares resolve to {@link net.minecraftforge.common.util.LazyOptional#empty()}
+ * without calling any provider.
+ *
+ * The declared set MUST NOT change over the lifetime of the provider. It is fine to declare
+ * more capabilities than are actually present at a given time, getCapability is still
+ * called and may return an empty optional.
+ */
+public interface IIndexedCapabilityProvider extends ICapabilityProvider
+{
+    /**
+     * @param side The side being queried, <strong>CAN BE NULL</strong>, see {@link ICapabilityProvider#getCapability(Capability, Direction)}
+     * @return Every capability this provider may return a non-empty optional for on the given side.
+     */
+    @Nonnull
+    Collection<Capability<?>> getProvidedCapabilities(@Nullable Direction side);
+}
@@ -0,0 +1,195 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.common.capabilities;
+
+import net.minecraft.block.BlockState;
+import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.Direction;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.world.IBlockReader;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.common.util.NonNullConsumer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+
+/**
+ * Caches a capability of the tile entity at a fixed position, usually a neighbor of the tile entity holding the cache.
+ *
+ * The capability is looked up once and kept until the block state at the position changes, the tile entity
+ * is removed, or the returned {@link LazyOptional} is invalidated, which the cache listens for with
+ * {@link LazyOptional#addListener}. Comparing the block state is much cheaper than looking up the tile entity and
+ * its capability on every access. That the tile entity does not provide the capability is cached the same way,
+ * call {@link #invalidate()} if it can start providing it without changing its block state, or pass
+ * {@code cacheMissing = false} if the owner of the cache can not know when that happens.
+ *
+ * Only weak references to the tile entity and the capability are kept, and the listener only holds the cache weakly,
+ * so a cache can be stored anywhere without keeping unloaded tile entities, worlds or dropped caches alive.
+ * Listeners can not be removed from a {@link LazyOptional}, so keep a cache per fixed position rather than
+ * creating new ones for something that moves.
+ */
+public class NeighborCapabilityCache<T>
+{
+    private final Capability<T> capability;
+    private final BlockPos pos;
+    @Nullable
+    private final Direction side;
+    private final boolean cacheMissing;
+
+    @Nullable
+    private BlockState state;
+    @Nullable
+    private WeakReference<TileEntity> tile;
+    @Nullable
+    private WeakReference<LazyOptional<T>> resolved;
+    private boolean valid;
+    @Nullable
+    private Listener<T> listener;
+
+    public NeighborCapabilityCache(Capability<T> capability, BlockPos pos, @Nullable Direction side)
+    {
+        this(capability, pos, side, true);
+    }
+
+    /**
+     * @param cacheMissing Whether to remember that the capability is missing, otherwise it is looked up again on every access until found.
+     */
+    public NeighborCapabilityCache(Capability<T> capability, BlockPos pos, @Nullable Direction side, boolean cacheMissing)
+    {
+        this.capability = capability;
+        this.pos = pos.toImmutable();
+        this.side = side;
+        this.cacheMissing = cacheMissing;
+    }
+
+    /**
+     * Creates a cache for the neighbor of origin in the given direction, queried from the side facing origin.
+     */
+    public static <T> NeighborCapabilityCache<T> ofNeighbor(Capability<T> capability, BlockPos origin, Direction direction)
+    {
+        return new NeighborCapabilityCache<>(capability, origin.offset(direction), direction.getOpposite());
+    }
+
+    public Capability<T> getCapability()
+    {
+        return capability;
+    }
+
+    public BlockPos getPos()
+    {
+        return pos;
+    }
+
+    @Nullable
+    public Direction getSide()
+    {
+        return side;
+    }
+
+    /**
+     * @return The capability of the tile entity at the cached position, resolving it again if needed.
+     */
+    @Nonnull
+    public LazyOptional<T> get(IBlockReader world)
+    {
+        if (!isValid(world))
+            resolve(world);
+        LazyOptional<T> cap = resolved == null ? null : resolved.get();
+        return cap == null ? LazyOptional.empty() : cap;
+    }
+
+    /**
+     * @return The tile entity at the cached position, or null if there is none.
+     */
+    @Nullable
+    public TileEntity getTileEntity(IBlockReader world)
+    {
+        if (!isValid(world))
+            resolve(world);
+        return tile == null ? null : tile.get();
+    }
+
+    /**
+     * Forces the next access to look the capability up again.
+     * Call this when the neighbor may have changed in a way that does not change its block state.
+     */
+    public void invalidate()
+    {
+        this.valid = false;
+    }
+
+    private boolean isValid(IBlockReader world)
+    {
+        if (!valid || world.getBlockState(pos) != state || (!cacheMissing && resolved == null))
+            return false;
+        if (tile == null)
+            return true;
+        // either side may have been collected, in which case the tile entity is gone or handed out a new capability
+        TileEntity te = tile.get();
+        return te != null && !te.isRemoved() && (resolved == null || resolved.get() != null);
+    }
+
+    private void resolve(IBlockReader world)
+    {
+        LazyOptional<T> previous = resolved == null ? null : resolved.get();
+
+        state = world.getBlockState(pos);
+        TileEntity te = state.hasTileEntity() ? world.getTileEntity(pos) : null;
+        LazyOptional<T> cap = te == null ? LazyOptional.empty() : te.getCapability(capability, side);
+
+        tile = te == null ? null : new WeakReference<>(te);
+        resolved = cap.isPresent() ? new WeakReference<>(cap) : null;
+        valid = true;
+
+        if (cap.isPresent() && cap != previous)
+        {
+            if (listener == null)
+                listener = new Listener<>(this);
+            cap.addListener(listener);
+        }
+    }
+
+    private void onInvalidated(LazyOptional<T> cap)
+    {
+        if (resolved != null && resolved.get() == cap)
+            valid = false;
+    }
+
+    /**
+     * Holds the cache weakly, as the optional it is added to may outlive the cache by far.
+     */
+    private static class Listener<T> implements NonNullConsumer<LazyOptional<T>>
+    {
+        private final WeakReference<NeighborCapabilityCache<T>> cache;
+
+        private Listener(NeighborCapabilityCache<T> cache)
+        {
+            this.cache = new WeakReference<>(cache);
+        }
+
+        @Override
+        public void accept(@Nonnull LazyOptional<T> cap)
+        {
+            NeighborCapabilityCache<T> cache = this.cache.get();
+            if (cache != null)
+                cache.onInvalidated(cap);
+        }
+    }
+}
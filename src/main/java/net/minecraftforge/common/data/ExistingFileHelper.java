@@ -21,10 +21,22 @@ package net.minecraftforge.common.data;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.HashMultimap;
@@ -84,9 +96,15 @@ public class ExistingFileHelper {
         public String getPrefix() { return prefix; }
     }
 
+    private static final Logger LOGGER = LogManager.getLogger();
+
     private final SimpleReloadableResourceManager clientResources, serverData;
     private final boolean enable;
     private final Multimap<ResourcePackType, ResourceLocation> generated = HashMultimap.create();
+    // Resources in the existing folders, indexed on first use, and the results of lookups in the other packs
+    private final List<Path> existingFolders = new ArrayList<>();
+    private Map<ResourcePackType, Set<ResourceLocation>> folderIndex;
+    private final Map<ResourcePackType, Map<ResourceLocation, Boolean>> lookups = new EnumMap<>(ResourcePackType.class);
 
     @Deprecated//TODO: Remove in 1.17
     public ExistingFileHelper(Collection<Path> existingPacks, boolean enable) {
@@ -112,6 +130,8 @@ public class ExistingFileHelper {
         this.serverData.addResourcePack(new VanillaPack("minecraft"));
         for (Path existing : existingPacks) {
             File file = existing.toFile();
+            if (file.isDirectory())
+                this.existingFolders.add(existing);
             IResourcePack pack = file.isDirectory() ? new FolderPack(file) : new FilePack(file);
             this.clientResources.addResourcePack(pack);
             this.serverData.addResourcePack(pack);
@@ -125,6 +145,8 @@ public class ExistingFileHelper {
             }
         }
         this.enable = enable;
+        for (ResourcePackType type : ResourcePackType.values())
+            this.lookups.put(type, new ConcurrentHashMap<>());
     }
 
     private IResourceManager getManager(ResourcePackType packType) {
@@ -148,7 +170,57 @@ public class ExistingFileHelper {
         if (!enable) {
             return true;
         }
-        return generated.get(packType).contains(loc) || getManager(packType).hasResource(loc);
+        if (generated.get(packType).contains(loc) || getFolderIndex().get(packType).contains(loc)) {
+            return true;
+        }
+        Map<ResourceLocation, Boolean> known = lookups.get(packType);
+        Boolean exists = known.get(loc);
+        if (exists == null) {
+            exists = getManager(packType).hasResource(loc);
+            known.put(loc, exists);
+        }
+        return exists;
+    }
+
+    /**
+     * Lists every file in the existing folders once, so most checks never have to go through the resource packs.
+     */
+    private synchronized Map<ResourcePackType, Set<ResourceLocation>> getFolderIndex() {
+        if (folderIndex == null) {
+            Map<ResourcePackType, Set<ResourceLocation>> index = new EnumMap<>(ResourcePackType.class);
+            for (ResourcePackType type : ResourcePackType.values()) {
+                Set<ResourceLocation> locations = new HashSet<>();
+                for (Path folder : existingFolders) {
+                    indexFolder(folder.resolve(type.getDirectoryName()), locations);
+                }
+                index.put(type, locations);
+            }
+            folderIndex = index;
+        }
+        return folderIndex;
+    }
+
+    private static void indexFolder(Path root, Set<ResourceLocation> locations) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                Path relative = root.relativize(file);
+                if (relative.getNameCount() < 2) {
+                    return;
+                }
+                String namespace = relative.getName(0).toString();
+                String path = relative.subpath(1, relative.getNameCount()).toString().replace('\\', '/');
+                ResourceLocation loc = ResourceLocation.tryCreate(namespace + ":" + path);
+                if (loc != null) {
+                    locations.add(loc);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            // the resource packs still hold everything that could not be indexed
+            LOGGER.warn("Failed to index existing resources in {}", root, e);
+        }
     }
 
     /**
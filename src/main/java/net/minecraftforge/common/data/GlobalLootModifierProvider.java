@@ -22,7 +22,6 @@ package net.minecraftforge.common.data;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonObject;
-import cpw.mods.modlauncher.api.LamdbaExceptionUtils;
 import net.minecraft.data.DataGenerator;
 import net.minecraft.data.DirectoryCache;
 import net.minecraft.data.IDataProvider;
@@ -36,8 +35,10 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -80,8 +81,9 @@ public abstract class GlobalLootModifierProvider implements IDataProvider
         Path forgePath = gen.getOutputFolder().resolve("data/forge/loot_modifiers/global_loot_modifiers.json");
         String modPath = "data/" + modid + "/loot_modifiers/";
         List<ResourceLocation> entries = new ArrayList<>();
+        Map<Path, Supplier<JsonObject>> outputs = new LinkedHashMap<>();
 
-        toSerialize.forEach(LamdbaExceptionUtils.rethrowBiConsumer((name, pair) ->
+        toSerialize.forEach((name, pair) ->
         {
             entries.add(new ResourceLocation(modid, name));
             Path modifierPath = gen.getOutputFolder().resolve(modPath + name + ".json");
@@ -89,8 +91,9 @@ public abstract class GlobalLootModifierProvider implements IDataProvider
             JsonObject json = pair.getB();
             json.addProperty("type", pair.getA().getRegistryName().toString());
 
-            IDataProvider.save(GSON, cache, json, modifierPath);
-        }));
+            outputs.put(modifierPath, () -> json);
+        });
+        ParallelDataWriter.saveAll(GSON, cache, outputs);
 
         JsonObject forgeJson = new JsonObject();
         forgeJson.addProperty("replace", this.replace);
@@ -0,0 +1,96 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.common.data;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import net.minecraft.data.DirectoryCache;
+import net.minecraft.data.IDataProvider;
+
+/**
+ * Writes the outputs of a data provider in parallel, with the same result as calling
+ * {@link IDataProvider#save(Gson, DirectoryCache, JsonElement, Path)} for each of them.
+ * <p>
+ * Serializing, hashing and writing run on the common fork join pool, only the accesses to the
+ * {@link DirectoryCache}, which is not thread safe, are serialized. Outputs whose hash is already
+ * in the cache are not written again, as long as the file still exists.
+ * <p>
+ * The suppliers are called from several threads at once, so they must not change any shared state.
+ */
+public final class ParallelDataWriter {
+
+    private ParallelDataWriter() {}
+
+    /**
+     * Saves every output, even if saving some of them fails.
+     *
+     * @param outputs the targets, with a supplier for the json to write to each of them
+     * @throws IOException the first failure, with any further failures added as suppressed
+     */
+    public static void saveAll(Gson gson, DirectoryCache cache, Map<Path, ? extends Supplier<? extends JsonElement>> outputs) throws IOException {
+        List<IOException> failures = Collections.synchronizedList(new ArrayList<>());
+        outputs.entrySet().parallelStream().forEach(entry -> {
+            try {
+                save(cache, gson.toJson(entry.getValue().get()), entry.getKey());
+            } catch (IOException e) {
+                failures.add(new IOException("Couldn't save data to " + entry.getKey(), e));
+            }
+        });
+        if (!failures.isEmpty()) {
+            IOException first = failures.get(0);
+            failures.subList(1, failures.size()).forEach(first::addSuppressed);
+            throw first;
+        }
+    }
+
+    /**
+     * Saves already serialized data, skipping the write if the cache holds the same hash for the target.
+     * Safe to call from several threads for different targets.
+     */
+    public static void save(DirectoryCache cache, String data, Path target) throws IOException {
+        String hash = IDataProvider.HASH_FUNCTION.hashUnencodedChars(data).toString();
+        String previous;
+        synchronized (cache) {
+            previous = cache.getPreviousHash(target);
+        }
+        if (!Objects.equals(previous, hash) || !Files.exists(target)) {
+            Files.createDirectories(target.getParent());
+
+            try (BufferedWriter bufferedwriter = Files.newBufferedWriter(target)) {
+                bufferedwriter.write(data);
+            }
+        }
+        synchronized (cache) {
+            cache.recordHash(target, hash);
+        }
+    }
+}
@@ -28,7 +28,14 @@ import java.io.Reader;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
 
 import net.minecraft.loot.LootSerializers;
 import net.minecraft.loot.conditions.ILootCondition;
@@ -36,6 +43,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMap.Builder;
 import com.google.gson.Gson;
@@ -56,6 +64,9 @@ public class LootModifierManager extends JsonReloadListener {
     private static final Gson GSON_INSTANCE = LootSerializers.func_237387_b_().create();
 
     private Map<ResourceLocation, IGlobalLootModifier> registeredLootModifiers = ImmutableMap.of();
+    // Modifiers that can apply to any loot table, and per loot table the modifiers that can apply to it, all in layered order
+    private List<IGlobalLootModifier> unindexedLootModifiers = ImmutableList.of();
+    private Map<ResourceLocation, List<IGlobalLootModifier>> lootModifiersByTable = ImmutableMap.of();
     private static final String folder = "loot_modifiers";
     
     public LootModifierManager() {
@@ -121,6 +132,60 @@ public class LootModifierManager extends JsonReloadListener {
         });
         ImmutableMap<ResourceLocation, IGlobalLootModifier> immutablemap = builder.build();
         this.registeredLootModifiers = immutablemap;
+        buildIndex(immutablemap.values());
+    }
+
+    /**
+     * Groups the modifiers by the loot table their conditions require, so that rolling a loot table
+     * only goes through the modifiers that can apply to it.
+     */
+    private void buildIndex(Collection<IGlobalLootModifier> modifiers) {
+        Map<IGlobalLootModifier, ResourceLocation> targets = new IdentityHashMap<>();
+        Set<ResourceLocation> tables = new HashSet<>();
+        for (IGlobalLootModifier modifier : modifiers) {
+            ResourceLocation target = getTargetLootTable(modifier);
+            if (target != null) {
+                targets.put(modifier, target);
+                tables.add(target);
+            }
+        }
+
+        ImmutableList.Builder<IGlobalLootModifier> unindexed = ImmutableList.builder();
+        Map<ResourceLocation, ImmutableList.Builder<IGlobalLootModifier>> byTable = new HashMap<>();
+        tables.forEach(table -> byTable.put(table, ImmutableList.builder()));
+        for (IGlobalLootModifier modifier : modifiers) {
+            ResourceLocation target = targets.get(modifier);
+            if (target != null) {
+                byTable.get(target).add(modifier);
+            } else {
+                unindexed.add(modifier);
+                byTable.values().forEach(list -> list.add(modifier));
+            }
+        }
+
+        Builder<ResourceLocation, List<IGlobalLootModifier>> index = ImmutableMap.builder();
+        byTable.forEach((table, list) -> index.put(table, list.build()));
+        this.unindexedLootModifiers = unindexed.build();
+        this.lootModifiersByTable = index.build();
+        LOGGER.debug("Indexed {} of {} loot modifiers by loot table", targets.size(), modifiers.size());
+    }
+
+    /**
+     * @return The only loot table the modifier can apply to, or null if that can not be told from its conditions.
+     */
+    @Nullable
+    private static ResourceLocation getTargetLootTable(IGlobalLootModifier modifier) {
+        if (!(modifier instanceof LootModifier))
+            return null;
+        ILootCondition[] conditions = ((LootModifier) modifier).conditions;
+        if (conditions == null)
+            return null;
+        // The conditions are all required, so one loot table condition decides the table
+        for (ILootCondition condition : conditions) {
+            if (condition instanceof LootTableIdCondition)
+                return ((LootTableIdCondition) condition).getTargetLootTableId();
+        }
+        return null;
     }
 
     private IGlobalLootModifier deserializeModifier(ResourceLocation location, JsonElement element) {
@@ -151,4 +216,13 @@ public class LootModifierManager extends JsonReloadListener {
         return registeredLootModifiers.values();
     }
 
+    /**
+     * The loot modifiers that can apply to the given loot table, in layered order.
+     * Modifiers that require a different loot table are left out, without testing their conditions.
+     * @param lootTableId The ID of the loot table being rolled
+     */
+    public List<IGlobalLootModifier> getLootModsFor(ResourceLocation lootTableId) {
+        return lootModifiersByTable.getOrDefault(lootTableId, unindexedLootModifiers);
+    }
+
 }
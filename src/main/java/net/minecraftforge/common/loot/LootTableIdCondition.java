@@ -48,6 +48,11 @@ public class LootTableIdCondition implements ILootCondition
         return LOOT_TABLE_ID;
     }
 
+    public ResourceLocation getTargetLootTableId()
+    {
+        return this.targetLootTableId;
+    }
+
     @Override
     public boolean test(LootContext lootContext)
     {
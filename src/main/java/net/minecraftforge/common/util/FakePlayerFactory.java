@@ -19,62 +19,129 @@
 
 package net.minecraftforge.common.util;
 
-import java.lang.ref.WeakReference;
-import java.util.Iterator;
+import java.util.Comparator;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import com.google.common.collect.Maps;
 import com.mojang.authlib.GameProfile;
 
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.world.server.ServerWorld;
 
 //To be expanded for generic Mod fake players?
 public class FakePlayerFactory
 {
     private static GameProfile MINECRAFT = new GameProfile(UUID.fromString("41C82C87-7AfB-4024-BA57-13D2C99CAE77"), "[Minecraft]");
-    // Map of all active fake player usernames to their entities
-    private static Map<GameProfile, FakePlayer> fakePlayers = Maps.newHashMap();
-    private static WeakReference<FakePlayer> MINECRAFT_PLAYER = null;
+    public static final int DEFAULT_MAX_PLAYERS_PER_WORLD = 256;
+    // Pools of active fake players per world, each keyed by their profile
+    private static final Map<ServerWorld, Pool> pools = new ConcurrentHashMap<>();
+    private static volatile int maxPlayersPerWorld = DEFAULT_MAX_PLAYERS_PER_WORLD;
 
     public static FakePlayer getMinecraft(ServerWorld world)
     {
-        FakePlayer ret = MINECRAFT_PLAYER != null ? MINECRAFT_PLAYER.get() : null;
-        if (ret == null)
-        {
-            ret = FakePlayerFactory.get(world,  MINECRAFT);
-            MINECRAFT_PLAYER = new WeakReference<FakePlayer>(ret);
-        }
-        return ret;
+        return get(world, MINECRAFT);
     }
 
     /**
      * Get a fake player with a given username,
      * Mods should either hold weak references to the return value, or listen for a
      * WorldEvent.Unload and kill all references to prevent worlds staying in memory.
+     *
+     * Every world keeps at most {@link #getMaxPlayersPerWorld()} fake players, the ones that were not asked
+     * for the longest are dropped first. A dropped player keeps working for whoever still holds it, but the
+     * next call for its profile creates a new one, so mods should call this again rather than cache the result
+     * for long.
+     *
+     * Players in the pool are returned on any thread. Creating one touches the world and the player list, so that
+     * always happens on the server thread, and other threads block until it is done there.
      */
     public static FakePlayer get(ServerWorld world, GameProfile username)
     {
-        if (!fakePlayers.containsKey(username))
-        {
-            FakePlayer fakePlayer = new FakePlayer(world, username);
-            fakePlayers.put(username, fakePlayer);
-        }
-
-        return fakePlayers.get(username);
+        return pools.computeIfAbsent(world, w -> new Pool()).get(world, username);
     }
 
     public static void unloadWorld(ServerWorld world)
     {
-        fakePlayers.entrySet().removeIf(entry -> entry.getValue().world == world);
-        if (MINECRAFT_PLAYER != null && MINECRAFT_PLAYER.get() != null && MINECRAFT_PLAYER.get().world == world) // This shouldn't be strictly necessary, but lets be aggressive.
+        pools.remove(world);
+    }
+
+    public static int getMaxPlayersPerWorld()
+    {
+        return maxPlayersPerWorld;
+    }
+
+    /**
+     * Changes the pool size, set from the forge server config. Pools that are too large shrink on their next use.
+     */
+    public static void setMaxPlayersPerWorld(int max)
+    {
+        maxPlayersPerWorld = Math.max(1, max);
+    }
+
+    private static class Pool
+    {
+        private final ConcurrentMap<GameProfile, Entry> players = new ConcurrentHashMap<>();
+
+        FakePlayer get(ServerWorld world, GameProfile username)
         {
-            FakePlayer mc = MINECRAFT_PLAYER.get();
-            if (mc != null && mc.world == world)
+            Entry entry = players.get(username);
+            if (entry == null)
             {
-                MINECRAFT_PLAYER = null;
+                MinecraftServer server = world.getServer();
+                if (server.isOnExecutionThread())
+                    entry = create(world, username);
+                else
+                    entry = CompletableFuture.supplyAsync(() -> create(world, username), server).join();
             }
+            entry.lastUsed = System.nanoTime();
+            return entry.player;
+        }
+
+        /**
+         * Only called on the server thread, so no two threads create a player for the same profile.
+         * The player is built outside of the map, its constructor loads chunks and must not run under a map lock.
+         */
+        private Entry create(ServerWorld world, GameProfile username)
+        {
+            Entry entry = players.get(username);
+            if (entry != null)
+                return entry;
+            entry = new Entry(new FakePlayer(world, username));
+            players.put(username, entry);
+            int max = maxPlayersPerWorld;
+            if (players.size() > max)
+                evict(max, entry);
+            return entry;
+        }
+
+        /**
+         * Drops the least recently used players, a quarter of the pool at once so the scan is not repeated for every new player.
+         */
+        private void evict(int max, Entry keep)
+        {
+            int target = max - max / 4;
+            int excess = players.size() - target;
+            if (excess <= 0)
+                return;
+            players.entrySet().stream()
+                    .filter(e -> e.getValue() != keep)
+                    .sorted(Comparator.comparingLong(e -> e.getValue().lastUsed))
+                    .limit(excess)
+                    .forEach(e -> players.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private static class Entry
+    {
+        private final FakePlayer player;
+        private volatile long lastUsed = System.nanoTime();
+
+        Entry(FakePlayer player)
+        {
+            this.player = player;
         }
     }
 }
@@ -23,7 +23,6 @@ import java.util.HashSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -49,6 +48,11 @@ import net.minecraftforge.common.capabilities.Capability;
  * must never be null.
  * <p>
  * The empty instance can be retrieved with {@link #empty()}.
+ * <p>
+ * Instances are cheap to create: the listener set is only allocated once a
+ * listener is added, and resolution is not synchronized. The resolved value is
+ * safely published to other threads, but threads that resolve an instance at the
+ * same time may each call the supplier.
  * 
  * @param <T> The type of the optional value.
  */
@@ -57,11 +61,13 @@ import net.minecraftforge.common.capabilities.Capability;
 public class LazyOptional<T>
 {
     private final NonNullSupplier<T> supplier;
-    private AtomicReference<T> resolved;
-    private Set<NonNullConsumer<LazyOptional<T>>> listeners = new HashSet<>();
+    // Written once the value is known, so a reader never sees a half resolved instance
+    private volatile @Nullable Resolved<T> resolved;
+    private @Nullable Set<NonNullConsumer<LazyOptional<T>>> listeners;
     private boolean isValid = true;
 
     private static final @Nonnull LazyOptional<Void> EMPTY = new LazyOptional<>(null);
+    private static final Resolved<?> RESOLVED_NULL = new Resolved<>(null);
     private static final Logger LOGGER = LogManager.getLogger();
 
     /**
@@ -107,23 +113,40 @@ public class LazyOptional<T>
     {
         if (!isValid)
             return null;
-        if (resolved != null)
-            return resolved.get();
+        Resolved<T> holder = resolved;
+        if (holder != null)
+            return holder.value;
 
         if (supplier != null)
         {
-            resolved = new AtomicReference<>(null);
             T temp = supplier.get();
             if (temp == null)
             {
+                resolved = RESOLVED_NULL.cast();
                 LOGGER.catching(Level.WARN, new NullPointerException("Supplier should not return null value"));
                 return null;
             }
-            resolved.set(temp);
-            return resolved.get();
+            resolved = new Resolved<>(temp);
+            return temp;
         }
         return null;
     }
+
+    private static final class Resolved<T>
+    {
+        private final @Nullable T value;
+
+        private Resolved(@Nullable T value)
+        {
+            this.value = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private <X> Resolved<X> cast()
+        {
+            return (Resolved<X>)this;
+        }
+    }
     
     private T getValueUnsafe()
     {
@@ -206,6 +229,40 @@ public class LazyOptional<T>
         return isPresent() ? Optional.of(mapper.apply(getValueUnsafe())) : Optional.empty();
     }
 
+    /**
+     * Resolve the contained supplier if non-empty and return the result of applying the mapping
+     * function to it, otherwise return {@code other}.
+     *
+     * @apiNote Unlike {@link #map(NonNullFunction)} this does not wrap the result in an {@link Optional}.
+     *
+     * @param mapper A mapping function to apply to the mod object, if present
+     * @param other  The value to be returned if this {@link LazyOptional} is empty
+     * @return The mapped value, if non-empty, otherwise {@code other}
+     * @throws NullPointerException if {@code mapper} is null.
+     */
+    public <U> U mapOrElse(NonNullFunction<? super T, ? extends U> mapper, U other)
+    {
+        Objects.requireNonNull(mapper);
+        T val = getValue();
+        return val != null ? mapper.apply(val) : other;
+    }
+
+    /**
+     * Resolve the contained supplier if non-empty and test it with the given {@link NonNullPredicate}.
+     *
+     * @apiNote Unlike {@link #filter(NonNullPredicate)} this does not wrap the result in an {@link Optional}.
+     *
+     * @param predicate A {@link NonNullPredicate} to apply to the result of the contained supplier, if non-empty
+     * @return {@code true} if this {@link LazyOptional} is non-empty and the predicate matches its value
+     * @throws NullPointerException If {@code predicate} is null
+     */
+    public boolean matches(NonNullPredicate<? super T> predicate)
+    {
+        Objects.requireNonNull(predicate);
+        T val = getValue();
+        return val != null && predicate.test(val);
+    }
+
     /**
      * Resolve the contained supplier if non-empty, and filter it by the given
      * {@link NonNullPredicate}, returning empty if false.
@@ -301,6 +358,8 @@ public class LazyOptional<T>
     {
         if (isPresent())
         {
+            if (this.listeners == null)
+                this.listeners = new HashSet<>();
             this.listeners.add(listener);
         }
         else
@@ -328,7 +387,11 @@ public class LazyOptional<T>
         if (this.isValid)
         {
             this.isValid = false;
-            this.listeners.forEach(e -> e.accept(this));
+            if (this.listeners != null)
+            {
+                this.listeners.forEach(e -> e.accept(this));
+                this.listeners = null;
+            }
         }
     }
 }
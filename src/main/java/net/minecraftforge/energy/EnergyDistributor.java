@@ -0,0 +1,262 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.energy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Moves energy from a set of producers to a set of consumers, once per call to {@link #distribute(long)}.
+ * <p>
+ * Every endpoint is asked what it could give or take with a single simulated call, the transfer is then split
+ * proportionally over all endpoints, and every endpoint sees a single executed call. The cost of a tick is
+ * linear in the number of endpoints, and totals are kept as longs so large grids can not overflow them.
+ * <p>
+ * Endpoints are plain {@link IEnergyStorage}s, so a cable network can keep them resolved between ticks, for
+ * example with a {@link net.minecraftforge.common.capabilities.NeighborCapabilityCache} per connection,
+ * and only update the distributor when its connections change. A storage should not be both a producer and a
+ * consumer of the same distributor. This class is not thread safe.
+ */
+public class EnergyDistributor
+{
+    private final List<IEnergyStorage> producers = new ArrayList<>();
+    private final List<IEnergyStorage> consumers = new ArrayList<>();
+    private int[] offers = new int[0];
+    private int[] demands = new int[0];
+
+    private long lastSupply;
+    private long lastDemand;
+    private long lastTransferred;
+    private long totalTransferred;
+    private long totalWasted;
+    private long ticks;
+
+    public void addProducer(IEnergyStorage producer)
+    {
+        producers.add(producer);
+    }
+
+    public boolean removeProducer(IEnergyStorage producer)
+    {
+        return producers.remove(producer);
+    }
+
+    public void addConsumer(IEnergyStorage consumer)
+    {
+        consumers.add(consumer);
+    }
+
+    public boolean removeConsumer(IEnergyStorage consumer)
+    {
+        return consumers.remove(consumer);
+    }
+
+    public void clear()
+    {
+        producers.clear();
+        consumers.clear();
+    }
+
+    public int getProducerCount()
+    {
+        return producers.size();
+    }
+
+    public int getConsumerCount()
+    {
+        return consumers.size();
+    }
+
+    /**
+     * Moves as much energy as the producers can give and the consumers can take, up to maxTransfer.
+     *
+     * @param maxTransfer Maximum amount of energy to move in this call, for example the throughput of the network.
+     * @return The amount of energy that reached the consumers.
+     */
+    public long distribute(long maxTransfer)
+    {
+        ticks++;
+        offers = ensureSize(offers, producers.size());
+        demands = ensureSize(demands, consumers.size());
+
+        lastSupply = simulate(producers, offers, true);
+        lastDemand = simulate(consumers, demands, false);
+        long planned = Math.min(Math.min(lastSupply, lastDemand), Math.max(maxTransfer, 0));
+        if (planned <= 0)
+        {
+            lastTransferred = 0;
+            return 0;
+        }
+
+        // Take the energy out first, so it can only ever be moved and never created
+        allocate(offers, producers.size(), lastSupply, planned);
+        long extracted = 0;
+        for (int i = 0; i < producers.size(); i++)
+        {
+            if (offers[i] > 0)
+                extracted += producers.get(i).extractEnergy(offers[i], false);
+        }
+
+        allocate(demands, consumers.size(), lastDemand, extracted);
+        long delivered = 0;
+        for (int i = 0; i < consumers.size(); i++)
+        {
+            if (demands[i] > 0)
+                delivered += consumers.get(i).receiveEnergy(demands[i], false);
+        }
+
+        // Only storages that do not match their own simulation leave anything over
+        long leftover = extracted - delivered;
+        for (int i = 0; leftover > 0 && i < consumers.size(); i++)
+        {
+            IEnergyStorage consumer = consumers.get(i);
+            if (consumer.canReceive())
+            {
+                int received = consumer.receiveEnergy(clamp(leftover), false);
+                delivered += received;
+                leftover -= received;
+            }
+        }
+        for (int i = 0; leftover > 0 && i < producers.size(); i++)
+        {
+            IEnergyStorage producer = producers.get(i);
+            if (producer.canReceive())
+                leftover -= producer.receiveEnergy(clamp(leftover), false);
+        }
+
+        totalWasted += leftover;
+        lastTransferred = delivered;
+        totalTransferred += delivered;
+        return delivered;
+    }
+
+    /**
+     * Fills amounts with what each storage could give or take in a single simulated call.
+     * @return The total of all amounts.
+     */
+    private static long simulate(List<IEnergyStorage> storages, int[] amounts, boolean extract)
+    {
+        long total = 0;
+        for (int i = 0; i < storages.size(); i++)
+        {
+            IEnergyStorage storage = storages.get(i);
+            int amount = 0;
+            if (extract ? storage.canExtract() : storage.canReceive())
+                amount = Math.max(0, extract ? storage.extractEnergy(Integer.MAX_VALUE, true) : storage.receiveEnergy(Integer.MAX_VALUE, true));
+            amounts[i] = amount;
+            total += amount;
+        }
+        return total;
+    }
+
+    /**
+     * Scales the amounts, which add up to total, in place so that they add up to target instead.
+     * No amount grows, and rounding leftovers are handed out in order.
+     */
+    private static void allocate(int[] amounts, int count, long total, long target)
+    {
+        if (target >= total)
+            return;
+        double ratio = (double) target / total;
+        long shared = 0;
+        for (int i = 0; i < count; i++)
+            shared += share(amounts[i], ratio);
+        // the shares round down, hand what is left to the first endpoints with room for it
+        long remaining = target - shared;
+        for (int i = 0; i < count; i++)
+        {
+            int share = share(amounts[i], ratio);
+            int extra = (int) Math.min(amounts[i] - share, Math.max(remaining, 0));
+            remaining -= extra;
+            amounts[i] = share + extra;
+        }
+    }
+
+    private static int share(int amount, double ratio)
+    {
+        return (int) Math.min((long) (amount * ratio), amount);
+    }
+
+    private static int clamp(long amount)
+    {
+        return (int) Math.min(amount, Integer.MAX_VALUE);
+    }
+
+    private static int[] ensureSize(int[] array, int size)
+    {
+        return array.length >= size ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    /**
+     * @return The energy the producers could have given in the last call.
+     */
+    public long getLastSupply()
+    {
+        return lastSupply;
+    }
+
+    /**
+     * @return The energy the consumers could have taken in the last call.
+     */
+    public long getLastDemand()
+    {
+        return lastDemand;
+    }
+
+    /**
+     * @return The energy moved in the last call.
+     */
+    public long getLastTransferred()
+    {
+        return lastTransferred;
+    }
+
+    /**
+     * @return The energy moved since creation or the last {@link #resetStatistics()}.
+     */
+    public long getTotalTransferred()
+    {
+        return totalTransferred;
+    }
+
+    /**
+     * @return The energy that was extracted but could be neither delivered nor given back. This stays at zero as long
+     * as every storage does what its simulations promised.
+     */
+    public long getTotalWasted()
+    {
+        return totalWasted;
+    }
+
+    /**
+     * @return The average energy moved per call since creation or the last {@link #resetStatistics()}.
+     */
+    public double getAverageThroughput()
+    {
+        return ticks == 0 ? 0 : (double) totalTransferred / ticks;
+    }
+
+    public void resetStatistics()
+    {
+        lastSupply = lastDemand = lastTransferred = 0;
+        totalTransferred = totalWasted = ticks = 0;
+    }
+}
@@ -278,9 +278,28 @@ public class FluidStack
         return getFluid() == other.getFluid() && isFluidStackTagEqual(other);
     }
 
+    /**
+     * Determines if this stack holds the given kind of fluid. This does not check amounts.
+     */
+    public boolean isFluidEqual(@Nonnull FluidVariant variant)
+    {
+        return variant.matches(this);
+    }
+
+    /**
+     * @return The interned {@link FluidVariant} of this stack, to be used as a key or for repeated comparisons.
+     * The variant does not follow later changes to this stack. Looking it up hashes the tag of the stack,
+     * so keep the variant rather than calling this for every comparison.
+     */
+    @Nonnull
+    public FluidVariant getVariant()
+    {
+        return FluidVariant.of(this);
+    }
+
     private boolean isFluidStackTagEqual(FluidStack other)
     {
-        return tag == null ? other.tag == null : other.tag != null && tag.equals(other.tag);
+        return tag == other.tag || (tag != null && other.tag != null && tag.equals(other.tag));
     }
 
     /**
@@ -49,6 +49,7 @@ import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.ItemHandlerHelper;
 
 import java.util.Optional;
+import java.util.function.Predicate;
 
 public class FluidUtil
 {
@@ -410,6 +411,42 @@ public class FluidUtil
         return FluidStack.EMPTY;
     }
 
+    /**
+     * Default implementation of {@link IFluidHandler#transferFluids}, built on simulated drains and fills.
+     * Drains by fluid, so multi-tank sources only give up the fluid of the tank being visited.
+     */
+    public static int transferFluids(IFluidHandler fluidSource, IFluidHandler fluidDestination, Predicate<FluidStack> filter, int maxAmount, IFluidHandler.FluidAction action)
+    {
+        int moved = 0;
+        for (int tank = 0; tank < fluidSource.getTanks() && moved < maxAmount; tank++)
+        {
+            FluidStack contained = fluidSource.getFluidInTank(tank);
+            if (contained.isEmpty() || !filter.test(contained))
+                continue;
+
+            FluidStack drainable = fluidSource.drain(new FluidStack(contained, Math.min(maxAmount - moved, contained.getAmount())), IFluidHandler.FluidAction.SIMULATE);
+            if (drainable.isEmpty())
+                continue;
+
+            int fillable = fluidDestination.fill(drainable, IFluidHandler.FluidAction.SIMULATE);
+            if (fillable <= 0)
+                continue;
+
+            if (action.simulate())
+            {
+                moved += fillable;
+            }
+            else
+            {
+                drainable.setAmount(fillable);
+                FluidStack drained = fluidSource.drain(drainable, IFluidHandler.FluidAction.EXECUTE);
+                if (!drained.isEmpty())
+                    moved += fluidDestination.fill(drained, IFluidHandler.FluidAction.EXECUTE);
+            }
+        }
+        return moved;
+    }
+
     /**
      * Helper method to get an {@link IFluidHandlerItem} for an itemStack.
      *
@@ -0,0 +1,178 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fluids;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import net.minecraft.fluid.Fluid;
+import net.minecraft.fluid.Fluids;
+import net.minecraft.nbt.CompoundNBT;
+
+/**
+ * The kind of fluid held by a {@link FluidStack}: the Fluid and its NBT tag, without an amount.
+ *
+ * Variants are immutable and interned, so two variants describe the same fluid exactly when they are
+ * the same instance, and their hash code is computed only once. This makes them cheap keys for maps and
+ * cheap to compare for handlers that have to match many stacks against what they already hold.
+ * Variants of untagged fluids are shared per Fluid, variants of tagged fluids are held weakly.
+ * <p>
+ * Looking up the variant of a tagged fluid hashes the whole tag, which costs about as much as one
+ * {@link FluidStack#isFluidEqual(FluidStack)}, so callers are expected to keep the variant of what they hold
+ * and look it up again only when that changes.
+ * <p>
+ * Forge's own handlers such as {@link net.minecraftforge.fluids.capability.templates.FluidTank} do not use variants:
+ * they match a single stack per call, which a variant makes no cheaper. Variants pay off for handlers that hold many
+ * kinds of fluid and look them up by kind, or that compare the same two kinds repeatedly.
+ */
+public final class FluidVariant
+{
+    private static final Map<Fluid, FluidVariant> UNTAGGED = new ConcurrentHashMap<>();
+    private static final Map<FluidVariant, WeakReference<FluidVariant>> TAGGED = new WeakHashMap<>();
+
+    public static final FluidVariant EMPTY = new FluidVariant(Fluids.EMPTY, null);
+
+    private final Fluid fluid;
+    @Nullable
+    private final CompoundNBT tag;
+    private final int hash;
+
+    private FluidVariant(Fluid fluid, @Nullable CompoundNBT tag)
+    {
+        this(fluid, tag, 31 * System.identityHashCode(fluid) + (tag == null ? 0 : tag.hashCode()));
+    }
+
+    private FluidVariant(Fluid fluid, @Nullable CompoundNBT tag, int hash)
+    {
+        this.fluid = fluid;
+        this.tag = tag;
+        this.hash = hash;
+    }
+
+    /**
+     * @param tag The tag of the fluid, it is only copied if no variant for it exists yet.
+     * @return The interned variant of the fluid, or {@link #EMPTY} for the empty fluid.
+     */
+    @Nonnull
+    public static FluidVariant of(@Nonnull Fluid fluid, @Nullable CompoundNBT tag)
+    {
+        if (fluid == Fluids.EMPTY)
+            return EMPTY;
+        if (tag == null)
+            return UNTAGGED.computeIfAbsent(fluid, f -> new FluidVariant(f, null));
+        // look up with the given tag, which the probe never lets escape
+        FluidVariant probe = new FluidVariant(fluid, tag);
+        synchronized (TAGGED)
+        {
+            WeakReference<FluidVariant> ref = TAGGED.get(probe);
+            FluidVariant variant = ref == null ? null : ref.get();
+            if (variant == null)
+            {
+                variant = new FluidVariant(fluid, tag.copy(), probe.hash);
+                TAGGED.put(variant, new WeakReference<>(variant));
+            }
+            return variant;
+        }
+    }
+
+    /**
+     * @return The interned variant of the stack, or {@link #EMPTY} for an empty stack.
+     */
+    @Nonnull
+    public static FluidVariant of(@Nonnull FluidStack stack)
+    {
+        return stack.isEmpty() ? EMPTY : of(stack.getFluid(), stack.getTag());
+    }
+
+    public Fluid getFluid()
+    {
+        return fluid;
+    }
+
+    public boolean isEmpty()
+    {
+        return this == EMPTY;
+    }
+
+    public boolean hasTag()
+    {
+        return tag != null;
+    }
+
+    /**
+     * @return A copy of the tag of this variant, the variant itself can not be modified.
+     */
+    @Nullable
+    public CompoundNBT copyTag()
+    {
+        return tag == null ? null : tag.copy();
+    }
+
+    /**
+     * Determines if the stack holds this kind of fluid, without interning the stack. This does not check amounts.
+     */
+    public boolean matches(@Nonnull FluidStack stack)
+    {
+        if (stack.isEmpty())
+            return isEmpty();
+        if (stack.getFluid() != fluid)
+            return false;
+        CompoundNBT other = stack.getTag();
+        return tag == null ? other == null : other != null && tag.equals(other);
+    }
+
+    /**
+     * @return A new stack of this fluid with the given amount.
+     */
+    @Nonnull
+    public FluidStack toStack(int amount)
+    {
+        return isEmpty() || amount <= 0 ? FluidStack.EMPTY : new FluidStack(fluid, amount, tag);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o)
+            return true;
+        if (!(o instanceof FluidVariant))
+            return false;
+        FluidVariant other = (FluidVariant) o;
+        return hash == other.hash && fluid == other.fluid && Objects.equals(tag, other.tag);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FluidVariant{" + fluid.getRegistryName() + (tag == null ? "" : ", " + tag) + "}";
+    }
+}
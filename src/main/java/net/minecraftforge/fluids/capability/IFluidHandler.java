@@ -21,6 +21,7 @@ package net.minecraftforge.fluids.capability;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.function.Predicate;
 
 import net.minecraftforge.fluids.*;
 
@@ -122,4 +123,21 @@ public interface IFluidHandler
     @Nonnull
     FluidStack drain(int maxDrain, FluidAction action);
 
+    /**
+     * Moves up to maxAmount of fluid matching the filter from the tanks of this handler into the destination,
+     * going through as many tanks as needed in a single call.
+     * <p/>
+     * For every tank, filling the destination is simulated first and only the accepted amount is drained.
+     * Implementations may override this to avoid the intermediate copies of the default implementation.
+     *
+     * @param destination The handler to move the fluid into.
+     * @param filter      Selects which fluids may be moved. It is given the fluid in the tank and MUST NOT modify it.
+     * @param maxAmount   Maximum amount of fluid to move.
+     * @param action      If SIMULATE, the transfer will only be simulated.
+     * @return Amount of fluid that was (or would have been, if simulated) moved.
+     */
+    default int transferFluids(IFluidHandler destination, Predicate<FluidStack> filter, int maxAmount, FluidAction action)
+    {
+        return FluidUtil.transferFluids(this, destination, filter, maxAmount, action);
+    }
 }
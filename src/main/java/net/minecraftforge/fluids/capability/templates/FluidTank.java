@@ -191,8 +191,12 @@ public class FluidTank implements IFluidHandler, IFluidTank {
         {
             drained = fluid.getAmount();
         }
+        if (drained <= 0)
+        {
+            return FluidStack.EMPTY;
+        }
         FluidStack stack = new FluidStack(fluid, drained);
-        if (action.execute() && drained > 0)
+        if (action.execute())
         {
             fluid.shrink(drained);
             onContentsChanged();
@@ -200,6 +204,24 @@ public class FluidTank implements IFluidHandler, IFluidTank {
         return stack;
     }
 
+    @Override
+    public int transferFluids(IFluidHandler destination, Predicate<FluidStack> filter, int maxAmount, FluidAction action)
+    {
+        if (fluid.isEmpty() || maxAmount <= 0 || !filter.test(fluid))
+        {
+            return 0;
+        }
+        // offer the stored stack itself if all of it may go, simulated fills never modify or keep it
+        int amount = Math.min(maxAmount, fluid.getAmount());
+        int filled = destination.fill(amount == fluid.getAmount() ? fluid : new FluidStack(fluid, amount), FluidAction.SIMULATE);
+        if (filled <= 0 || action.simulate())
+        {
+            return Math.max(filled, 0);
+        }
+        FluidStack drained = drain(filled, FluidAction.EXECUTE);
+        return drained.isEmpty() ? 0 : destination.fill(drained, FluidAction.EXECUTE);
+    }
+
     protected void onContentsChanged()
     {
 
@@ -87,6 +87,7 @@ public class ModConfig
     }
 
     void fireEvent(final ModConfigEvent configEvent) {
+        this.spec.afterReload();
         this.container.dispatchConfigEvent(configEvent);
     }
 
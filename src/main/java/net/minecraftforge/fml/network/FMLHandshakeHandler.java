@@ -21,6 +21,7 @@ package net.minecraftforge.fml.network;
 
 import net.minecraft.network.login.ServerLoginNetHandler;
 import com.google.common.collect.Multimap;
+import io.netty.buffer.Unpooled;
 import net.minecraft.network.NetworkManager;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
@@ -31,6 +32,7 @@ import net.minecraftforge.fml.network.simple.SimpleChannel;
 import net.minecraftforge.fml.util.ThreeConsumer;
 import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.GameData;
+import net.minecraftforge.registries.RegistryManager;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -39,11 +41,13 @@ import org.apache.logging.log4j.MarkerManager;
 import com.google.common.collect.Maps;
 
 import java.util.*;
+import javax.annotation.Nullable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static net.minecraftforge.registries.ForgeRegistry.REGISTRIES;
 
@@ -112,6 +116,14 @@ public class FMLHandshakeHandler {
     private Map<ResourceLocation, ForgeRegistry.Snapshot> registrySnapshots;
     private Set<ResourceLocation> registriesToReceive;
     private Map<ResourceLocation, String> registryHashes;
+    private RegistrySnapshotCache registryCache;
+    /**
+     * Position in the {@link #messageList} the registry payloads are inserted at, right after the mod list.
+     * -1 once they are queued, or if there are none to send.
+     */
+    private int registryPosition = -1;
+    @Nullable
+    private volatile Map<ResourceLocation, String> clientRegistryHashes;
 
     private FMLHandshakeHandler(NetworkManager networkManager, NetworkDirection side)
     {
@@ -127,6 +139,13 @@ public class FMLHandshakeHandler {
             this.messageList = NetworkRegistry.gatherLoginPayloads(this.direction, false);
             LOGGER.debug(FMLHSMARKER, "Starting new modded network connection. Found {} messages to dispatch.", this.messageList.size());
         }
+        // The registry packets depend on the snapshots the client has cached, which it tells us in its mod list reply
+        for (int i = 0; i < this.messageList.size(); i++) {
+            if (FMLNetworkConstants.FML_HANDSHAKE_RESOURCE.equals(this.messageList.get(i).getChannelName())) {
+                this.registryPosition = i + 1;
+                break;
+            }
+        }
     }
 
     /**
@@ -179,7 +198,8 @@ public class FMLHandshakeHandler {
             c.get().getNetworkManager().closeChannel(new StringTextComponent("Connection closed - mismatched mod channel list"));
             return;
         }
-        FMLNetworkConstants.handshakeChannel.reply(new FMLHandshakeMessages.C2SModListReply(), c.get());
+        this.registryCache = RegistrySnapshotCache.load(c.get().getNetworkManager(), serverModList.getRegistries());
+        FMLNetworkConstants.handshakeChannel.reply(new FMLHandshakeMessages.C2SModListReply(this.registryCache.getHashes(serverModList.getRegistries())), c.get());
 
         LOGGER.debug(FMLHSMARKER, "Accepted server connection");
         // Set the modded marker on the channel so we know we got packets
@@ -210,12 +230,43 @@ public class FMLHandshakeHandler {
             return;
         }
         LOGGER.debug(FMLHSMARKER, "Accepted client connection mod list");
+        this.clientRegistryHashes = clientModList.getRegistries();
+    }
+
+    private List<NetworkRegistry.LoginPayload> buildRegistryPayloads(Map<ResourceLocation, String> clientHashes)
+    {
+        // Clients that cache snapshots list every registry, older clients send no hashes at all
+        final boolean useCache = !clientHashes.isEmpty();
+        return RegistryManager.generateRegistryPackets(this.manager.isLocalChannel()).stream().map(p -> {
+            if (useCache)
+                p.getRight().useClientCache(clientHashes.get(p.getRight().getRegistryName()));
+            PacketBuffer pb = new PacketBuffer(Unpooled.buffer());
+            FMLNetworkConstants.handshakeChannel.encodeMessage(p.getRight(), pb);
+            LOGGER.debug(FMLHSMARKER, "Registry {} {}", p.getRight().getRegistryName(), p.getRight().isCached() ? "is cached by the client" : "will be sent");
+            return new NetworkRegistry.LoginPayload(pb, FMLNetworkConstants.FML_HANDSHAKE_RESOURCE, p.getLeft());
+        }).collect(Collectors.toList());
     }
 
     void handleRegistryMessage(final FMLHandshakeMessages.S2CRegistry registryPacket, final Supplier<NetworkEvent.Context> contextSupplier){
         LOGGER.debug(FMLHSMARKER,"Received registry packet for {}", registryPacket.getRegistryName());
+        // only registries announced in the mod list may touch the cache, anything else is not ours to store or remove
+        final boolean expected = this.registriesToReceive.contains(registryPacket.getRegistryName());
+        ForgeRegistry.Snapshot snapshot = registryPacket.getSnapshot();
+        if (registryPacket.isCached()) {
+            snapshot = this.registryCache.get(registryPacket.getRegistryName(), registryPacket.getHash());
+            if (snapshot == null) {
+                contextSupplier.get().setPacketHandled(true);
+                LOGGER.error(FMLHSMARKER, "Server referenced a cached snapshot for registry {} that we do not have", registryPacket.getRegistryName());
+                if (expected)
+                    this.registryCache.remove(registryPacket.getRegistryName());
+                this.manager.closeChannel(new StringTextComponent("Connection closed - missing cached registry data, please reconnect"));
+                return;
+            }
+        } else if (expected && snapshot != null && registryPacket.getHash() != null) {
+            this.registryCache.store(registryPacket.getRegistryName(), registryPacket.getHash(), snapshot);
+        }
         this.registriesToReceive.remove(registryPacket.getRegistryName());
-        this.registrySnapshots.put(registryPacket.getRegistryName(), registryPacket.getSnapshot());
+        this.registrySnapshots.put(registryPacket.getRegistryName(), snapshot);
 
         boolean continueHandshake = true;
         if (this.registriesToReceive.isEmpty()) {
@@ -284,6 +335,13 @@ public class FMLHandshakeHandler {
      */
     public boolean tickServer()
     {
+        if (registryPosition != -1 && packetPosition >= registryPosition) {
+            final Map<ResourceLocation, String> clientHashes = this.clientRegistryHashes;
+            if (clientHashes == null)
+                return false; // Wait for the mod list reply
+            messageList.addAll(registryPosition, buildRegistryPayloads(clientHashes));
+            registryPosition = -1;
+        }
         if (packetPosition < messageList.size()) {
             NetworkRegistry.LoginPayload message = messageList.get(packetPosition);
 
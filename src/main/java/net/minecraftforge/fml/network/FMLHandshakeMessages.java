@@ -19,6 +19,8 @@
 
 package net.minecraftforge.fml.network;
 
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.ModList;
@@ -33,6 +35,9 @@ import java.util.Map;
 import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 import javax.annotation.Nullable;
 
@@ -138,7 +143,18 @@ public class FMLHandshakeMessages
         {
             this.mods = ModList.get().getMods().stream().map(ModInfo::getModId).collect(Collectors.toList());
             this.channels = NetworkRegistry.buildChannelVersions();
-            this.registries = Maps.newHashMap(); //TODO: Fill with known hashes, which requires keeping a file cache
+            this.registries = Maps.newHashMap();
+        }
+
+        /**
+         * @param registries The hash of the cached snapshot of each registry the server sends, or an empty string if
+         *                   there is none. A non empty map tells the server this client understands cached and
+         *                   compressed {@link S2CRegistry} messages.
+         */
+        public C2SModListReply(Map<ResourceLocation, String> registries)
+        {
+            this();
+            this.registries = registries;
         }
 
         private C2SModListReply(List<String> mods, Map<ResourceLocation, String> channels, Map<ResourceLocation, String> registries)
@@ -210,28 +226,121 @@ public class FMLHandshakeMessages
     }
 
     public static class S2CRegistry extends LoginIndexedMessage {
+        private static final int NO_SNAPSHOT = 0;
+        private static final int SNAPSHOT = 1;
+        private static final int CACHED = 2;
+        private static final int COMPRESSED = 3;
+        private static final int MAX_SNAPSHOT_SIZE = 0x4000000;
+
         private ResourceLocation registryName;
         @Nullable
         private ForgeRegistry.Snapshot snapshot;
+        @Nullable
+        private String hash;
+        private boolean cached;
 
         public S2CRegistry(final ResourceLocation name, @Nullable ForgeRegistry.Snapshot snapshot) {
             this.registryName = name;
             this.snapshot = snapshot;
         }
 
+        private S2CRegistry(final ResourceLocation name, @Nullable ForgeRegistry.Snapshot snapshot, @Nullable String hash, boolean cached) {
+            this(name, snapshot);
+            this.hash = hash;
+            this.cached = cached;
+        }
+
+        /**
+         * Switches this message to the format for clients that cache snapshots: only the hash is sent when it matches
+         * the one the client has cached, otherwise the snapshot is sent compressed along with its hash.
+         *
+         * @param clientHash The hash of the snapshot the client has cached, or an empty string
+         */
+        void useClientCache(@Nullable String clientHash) {
+            if (this.snapshot == null)
+                return;
+            this.hash = this.snapshot.getHash();
+            this.cached = this.hash.equals(clientHash);
+        }
+
         void encode(final PacketBuffer buffer) {
             buffer.writeResourceLocation(registryName);
-            buffer.writeBoolean(hasSnapshot());
-            if (hasSnapshot())
+            if (!hasSnapshot()) {
+                buffer.writeByte(NO_SNAPSHOT);
+            } else if (hash == null) {
+                buffer.writeByte(SNAPSHOT);
                 buffer.writeBytes(snapshot.getPacketData());
+            } else if (cached) {
+                buffer.writeByte(CACHED);
+                buffer.writeString(hash);
+            } else {
+                buffer.writeByte(COMPRESSED);
+                buffer.writeString(hash);
+                PacketBuffer data = snapshot.getPacketData();
+                byte[] raw = new byte[data.readableBytes()];
+                data.readBytes(raw);
+                buffer.writeVarInt(raw.length);
+                buffer.writeByteArray(deflate(raw));
+            }
         }
 
         public static S2CRegistry decode(final PacketBuffer buffer) {
             ResourceLocation name = buffer.readResourceLocation();
-            ForgeRegistry.Snapshot snapshot = null;
-            if (buffer.readBoolean())
-                snapshot = ForgeRegistry.Snapshot.read(buffer);
-            return new S2CRegistry(name, snapshot);
+            switch (buffer.readByte()) {
+                case NO_SNAPSHOT:
+                    return new S2CRegistry(name, null);
+                case SNAPSHOT:
+                    return new S2CRegistry(name, ForgeRegistry.Snapshot.read(buffer));
+                case CACHED:
+                    return new S2CRegistry(name, null, buffer.readString(), true);
+                case COMPRESSED:
+                    String hash = buffer.readString();
+                    int length = buffer.readVarInt();
+                    if (length < 0 || length > MAX_SNAPSHOT_SIZE)
+                        throw new DecoderException("Registry snapshot for " + name + " is too large: " + length);
+                    byte[] raw = inflate(buffer.readByteArray(), length);
+                    return new S2CRegistry(name, ForgeRegistry.Snapshot.read(new PacketBuffer(Unpooled.wrappedBuffer(raw))), hash, false);
+                default:
+                    throw new DecoderException("Unknown registry snapshot format for " + name);
+            }
+        }
+
+        private static byte[] deflate(byte[] raw) {
+            Deflater deflater = new Deflater();
+            deflater.setInput(raw);
+            deflater.finish();
+            PacketBuffer out = new PacketBuffer(Unpooled.buffer(raw.length / 4 + 64));
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int count = deflater.deflate(chunk);
+                out.writeBytes(chunk, 0, count);
+            }
+            deflater.end();
+            byte[] ret = new byte[out.readableBytes()];
+            out.readBytes(ret);
+            return ret;
+        }
+
+        private static byte[] inflate(byte[] compressed, int length) {
+            Inflater inflater = new Inflater();
+            inflater.setInput(compressed);
+            byte[] raw = new byte[length];
+            try {
+                int read = 0;
+                while (read < length && !inflater.finished()) {
+                    int count = inflater.inflate(raw, read, length - read);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                        break;
+                    read += count;
+                }
+                if (read != length || !inflater.finished())
+                    throw new DecoderException("Registry snapshot did not match its declared size " + length);
+            } catch (DataFormatException e) {
+                throw new DecoderException("Invalid compressed registry snapshot", e);
+            } finally {
+                inflater.end();
+            }
+            return raw;
         }
 
         public ResourceLocation getRegistryName() {
@@ -246,6 +355,21 @@ public class FMLHandshakeMessages
         public ForgeRegistry.Snapshot getSnapshot() {
             return snapshot;
         }
+
+        /**
+         * @return The hash of the snapshot, if the server sent one for the client cache
+         */
+        @Nullable
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * @return If the snapshot was left out because the client has it cached, see {@link #getHash()}
+         */
+        public boolean isCached() {
+            return cached;
+        }
     }
 
 
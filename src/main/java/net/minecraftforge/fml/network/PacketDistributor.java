@@ -29,13 +29,20 @@ import net.minecraft.util.RegistryKey;
 import net.minecraft.world.World;
 import net.minecraft.world.chunk.Chunk;
 import net.minecraft.world.server.ServerChunkProvider;
+import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.LogicalSidedProvider;
+import org.apache.commons.lang3.tuple.Pair;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Means to distribute packets in various ways
@@ -50,25 +57,25 @@ public class PacketDistributor<T> {
      * <br/>
      * {@link #with(Supplier)} Player
      */
-    public static final PacketDistributor<ServerPlayerEntity> PLAYER = new PacketDistributor<>(PacketDistributor::playerConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<ServerPlayerEntity> PLAYER = new PacketDistributor<>(PacketDistributor::playerConsumer, PacketDistributor::player, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone in the dimension specified in the Supplier
      * <br/>
      * {@link #with(Supplier)} DimensionType
      */
-    public static final PacketDistributor<RegistryKey<World>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<RegistryKey<World>> DIMENSION = new PacketDistributor<>(PacketDistributor::playerListDimConsumer, PacketDistributor::playerListDim, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone near the {@link TargetPoint} specified in the Supplier
      * <br/>
      * {@link #with(Supplier)} TargetPoint
      */
-    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<TargetPoint> NEAR = new PacketDistributor<>(PacketDistributor::playerListPointConsumer, PacketDistributor::playerListPoint, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to everyone
      * <br/>
      * {@link #noArg()}
      */
-    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<Void> ALL = new PacketDistributor<>(PacketDistributor::playerListAll, PacketDistributor::playerList, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to the server (CLIENT to SERVER)
      * <br/>
@@ -92,7 +99,7 @@ public class PacketDistributor<T> {
      * <br/>
      * {@link #with(Supplier)} Chunk
      */
-    public static final PacketDistributor<Chunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk, NetworkDirection.PLAY_TO_CLIENT);
+    public static final PacketDistributor<Chunk> TRACKING_CHUNK = new PacketDistributor<>(PacketDistributor::trackingChunk, PacketDistributor::trackingChunkPlayers, NetworkDirection.PLAY_TO_CLIENT);
     /**
      * Send to the supplied list of NetworkManager instances in the Supplier
      * <br/>
@@ -159,6 +166,19 @@ public class PacketDistributor<T> {
             return ()->tp;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TargetPoint)) return false;
+            final TargetPoint other = (TargetPoint) o;
+            return excluded == other.excluded && Double.compare(x, other.x) == 0 && Double.compare(y, other.y) == 0 &&
+                    Double.compare(z, other.z) == 0 && Double.compare(r2, other.r2) == 0 && Objects.equals(dim, other.dim);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(excluded), x, y, z, r2, dim);
+        }
     }
 
     /**
@@ -170,9 +190,47 @@ public class PacketDistributor<T> {
     public static class PacketTarget {
         private final Consumer<IPacket<?>> packetConsumer;
         private final PacketDistributor<?> distributor;
+        @Nullable
+        private final Supplier<List<ServerPlayerEntity>> recipients;
+        private final Supplier<?> argument;
         PacketTarget(final Consumer<IPacket<?>> packetConsumer, final PacketDistributor<?> distributor) {
+            this(packetConsumer, distributor, null, ()->null);
+        }
+
+        PacketTarget(final Consumer<IPacket<?>> packetConsumer, final PacketDistributor<?> distributor, @Nullable final Supplier<List<ServerPlayerEntity>> recipients, final Supplier<?> argument) {
             this.packetConsumer = packetConsumer;
             this.distributor = distributor;
+            this.recipients = recipients;
+            this.argument = argument;
+        }
+
+        /**
+         * @return A key that is equal for targets of the same distributor with equal values, such as two targets
+         * built by separate {@link PacketDistributor#with(Supplier)} calls for the same player. Gets the value
+         * from the supplier.
+         */
+        public Object getKey() {
+            return Pair.of(distributor, argument.get());
+        }
+
+        /**
+         * Computes the players this target currently sends to once, and returns a target that sends to exactly
+         * those players. Use it to send many packets to the same recipients, such as a burst of particle or sound
+         * messages, without looking them up again for every packet.
+         * <p>
+         * Targets whose recipients can not be listed, such as {@link #SERVER} or {@link #TRACKING_ENTITY},
+         * are returned as is.
+         *
+         * @return A target for the current recipients
+         */
+        public PacketTarget resolve() {
+            if (recipients == null)
+                return this;
+            final List<ServerPlayerEntity> players = recipients.get();
+            return new PacketTarget(p -> {
+                for (int i = 0; i < players.size(); i++)
+                    players.get(i).connection.sendPacket(p);
+            }, distributor, () -> players, argument);
         }
 
         public void send(IPacket<?> packet) {
@@ -186,10 +244,22 @@ public class PacketDistributor<T> {
     }
 
     private final BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor;
+    @Nullable
+    private final BiFunction<PacketDistributor<T>, T, List<ServerPlayerEntity>> recipients;
     private final NetworkDirection direction;
 
     public PacketDistributor(BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor, NetworkDirection direction) {
+        this(functor, null, direction);
+    }
+
+    /**
+     * @param functor Builds the packet consumer for a supplied value
+     * @param recipients Lists the players a value currently sends to, for {@link PacketTarget#resolve()}
+     * @param direction The direction of the packets
+     */
+    public PacketDistributor(BiFunction<PacketDistributor<T>, Supplier<T>, Consumer<IPacket<?>>> functor, @Nullable BiFunction<PacketDistributor<T>, T, List<ServerPlayerEntity>> recipients, NetworkDirection direction) {
         this.functor = functor;
+        this.recipients = recipients;
         this.direction = direction;
     }
 
@@ -199,7 +269,7 @@ public class PacketDistributor<T> {
      * @return A curried instance
      */
     public PacketTarget with(Supplier<T> input) {
-        return new PacketTarget(functor.apply(this, input), this);
+        return new PacketTarget(functor.apply(this, input), this, recipients == null ? null : () -> recipients.apply(this, input.get()), input);
     }
 
     /**
@@ -210,7 +280,7 @@ public class PacketDistributor<T> {
      * @return A curried instance
      */
     public PacketTarget noArg() {
-        return new PacketTarget(functor.apply(this, ()->null), this);
+        return new PacketTarget(functor.apply(this, ()->null), this, recipients == null ? null : () -> recipients.apply(this, null), ()->null);
     }
 
     private Consumer<IPacket<?>> playerConsumer(final Supplier<ServerPlayerEntity> entityPlayerMPSupplier) {
@@ -230,8 +300,9 @@ public class PacketDistributor<T> {
 
     private Consumer<IPacket<?>> playerListPointConsumer(final Supplier<TargetPoint> targetPointSupplier) {
         return p -> {
-            final TargetPoint tp = targetPointSupplier.get();
-            getServer().getPlayerList().sendToAllNearExcept(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim, p);
+            final List<ServerPlayerEntity> players = playerListPoint(targetPointSupplier.get());
+            for (int i = 0; i < players.size(); i++)
+                players.get(i).connection.sendPacket(p);
         };
     }
 
@@ -256,6 +327,27 @@ public class PacketDistributor<T> {
         };
     }
 
+    private List<ServerPlayerEntity> player(final ServerPlayerEntity player) {
+        return Collections.singletonList(player);
+    }
+
+    private List<ServerPlayerEntity> playerListDim(final RegistryKey<World> dimension) {
+        final ServerWorld world = getServer().getWorld(dimension);
+        return world == null ? Collections.emptyList() : new ArrayList<>(world.getPlayers());
+    }
+
+    private List<ServerPlayerEntity> playerListPoint(final TargetPoint tp) {
+        return PlayerSpatialIndex.getPlayersNear(tp.excluded, tp.x, tp.y, tp.z, tp.r2, tp.dim);
+    }
+
+    private List<ServerPlayerEntity> playerList(final Void unused) {
+        return new ArrayList<>(getServer().getPlayerList().getPlayers());
+    }
+
+    private List<ServerPlayerEntity> trackingChunkPlayers(final Chunk chunk) {
+        return ((ServerChunkProvider)chunk.getWorld().getChunkProvider()).chunkManager.getTrackingPlayers(chunk.getPos(), false).collect(Collectors.toList());
+    }
+
     private Consumer<IPacket<?>> networkManagerList(final Supplier<List<NetworkManager>> nmListSupplier) {
         return p -> nmListSupplier.get().forEach(nm->nm.sendPacket(p));
     }
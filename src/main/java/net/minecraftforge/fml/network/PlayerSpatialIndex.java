@@ -0,0 +1,206 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.entity.player.ServerPlayerEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.IWorld;
+import net.minecraft.world.World;
+import net.minecraft.world.server.ServerWorld;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.EntityEvent;
+import net.minecraftforge.event.entity.EntityJoinWorldEvent;
+import net.minecraftforge.event.entity.EntityLeaveWorldEvent;
+import net.minecraftforge.event.world.WorldEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.SubscribeEvent;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per dimension index of the server players by the chunk they are in, used by {@link PacketDistributor#NEAR}
+ * to find the players around a point without checking every player on the server.
+ * <p>
+ * The index is kept up to date as players join, leave and move between chunks, and is resynchronized with the
+ * player positions at the start of every world tick.
+ */
+public final class PlayerSpatialIndex {
+    private static final Map<RegistryKey<World>, Long2ObjectMap<List<ServerPlayerEntity>>> CELLS = new HashMap<>();
+    private static final Map<ServerPlayerEntity, Entry> PLAYERS = new IdentityHashMap<>();
+
+    private PlayerSpatialIndex() {}
+
+    /**
+     * Find the players in a dimension whose distance to a point is below a radius.
+     *
+     * @param excluded A player to leave out, or null
+     * @param x X
+     * @param y Y
+     * @param z Z
+     * @param radius Radius
+     * @param dim The dimension to search
+     * @return A new list of the matching players
+     */
+    public static List<ServerPlayerEntity> getPlayersNear(@Nullable ServerPlayerEntity excluded, double x, double y, double z, double radius, RegistryKey<World> dim) {
+        final List<ServerPlayerEntity> ret = new ArrayList<>();
+        final double r2 = radius * radius;
+        synchronized (CELLS) {
+            final Long2ObjectMap<List<ServerPlayerEntity>> cells = CELLS.get(dim);
+            if (cells == null || cells.isEmpty())
+                return ret;
+            // Cells are only updated when a player changes chunk, so search one cell further to catch recent movement.
+            final int minX = (MathHelper.floor(x - radius) >> 4) - 1;
+            final int maxX = (MathHelper.floor(x + radius) >> 4) + 1;
+            final int minZ = (MathHelper.floor(z - radius) >> 4) - 1;
+            final int maxZ = (MathHelper.floor(z + radius) >> 4) + 1;
+            if ((long)(maxX - minX + 1) * (maxZ - minZ + 1) > cells.size()) {
+                for (List<ServerPlayerEntity> players : cells.values())
+                    collect(players, excluded, x, y, z, r2, ret);
+            } else {
+                for (int cx = minX; cx <= maxX; cx++) {
+                    for (int cz = minZ; cz <= maxZ; cz++) {
+                        final List<ServerPlayerEntity> players = cells.get(ChunkPos.asLong(cx, cz));
+                        if (players != null)
+                            collect(players, excluded, x, y, z, r2, ret);
+                    }
+                }
+            }
+        }
+        return ret;
+    }
+
+    private static void collect(List<ServerPlayerEntity> players, @Nullable ServerPlayerEntity excluded, double x, double y, double z, double r2, List<ServerPlayerEntity> ret) {
+        for (int i = 0; i < players.size(); i++) {
+            final ServerPlayerEntity player = players.get(i);
+            if (player == excluded)
+                continue;
+            final double dx = x - player.getPosX();
+            final double dy = y - player.getPosY();
+            final double dz = z - player.getPosZ();
+            if (dx * dx + dy * dy + dz * dz < r2)
+                ret.add(player);
+        }
+    }
+
+    private static void update(ServerPlayerEntity player, RegistryKey<World> dim, int chunkX, int chunkZ) {
+        final long cell = ChunkPos.asLong(chunkX, chunkZ);
+        synchronized (CELLS) {
+            final Entry entry = PLAYERS.get(player);
+            if (entry != null) {
+                if (entry.dim == dim && entry.cell == cell)
+                    return;
+                removeFromCell(player, entry);
+            }
+            PLAYERS.put(player, new Entry(dim, cell));
+            CELLS.computeIfAbsent(dim, k -> new Long2ObjectOpenHashMap<>()).computeIfAbsent(cell, k -> new ArrayList<>(2)).add(player);
+        }
+    }
+
+    private static void remove(ServerPlayerEntity player) {
+        synchronized (CELLS) {
+            final Entry entry = PLAYERS.remove(player);
+            if (entry != null)
+                removeFromCell(player, entry);
+        }
+    }
+
+    private static void removeFromCell(ServerPlayerEntity player, Entry entry) {
+        final Long2ObjectMap<List<ServerPlayerEntity>> cells = CELLS.get(entry.dim);
+        final List<ServerPlayerEntity> players = cells == null ? null : cells.get(entry.cell);
+        if (players == null)
+            return;
+        // Identity, respawned players share the entity id of the player they replace
+        for (int i = 0; i < players.size(); i++) {
+            if (players.get(i) == player) {
+                players.remove(i);
+                break;
+            }
+        }
+        if (players.isEmpty())
+            cells.remove(entry.cell);
+    }
+
+    private static void update(ServerPlayerEntity player, ServerWorld world) {
+        update(player, world.getDimensionKey(), MathHelper.floor(player.getPosX()) >> 4, MathHelper.floor(player.getPosZ()) >> 4);
+    }
+
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public static void onEntityJoinWorld(EntityJoinWorldEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity && event.getWorld() instanceof ServerWorld)
+            update((ServerPlayerEntity)event.getEntity(), (ServerWorld)event.getWorld());
+    }
+
+    @SubscribeEvent
+    public static void onEntityLeaveWorld(EntityLeaveWorldEvent event) {
+        if (event.getEntity() instanceof ServerPlayerEntity)
+            remove((ServerPlayerEntity)event.getEntity());
+    }
+
+    @SubscribeEvent
+    public static void onEnteringChunk(EntityEvent.EnteringChunk event) {
+        if (event.getEntity() instanceof ServerPlayerEntity && event.getEntity().world instanceof ServerWorld) {
+            final ServerPlayerEntity player = (ServerPlayerEntity)event.getEntity();
+            synchronized (CELLS) {
+                if (PLAYERS.containsKey(player))
+                    update(player, player.world.getDimensionKey(), event.getNewChunkX(), event.getNewChunkZ());
+            }
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldTick(TickEvent.WorldTickEvent event) {
+        if (event.phase == TickEvent.Phase.START && event.world instanceof ServerWorld) {
+            final ServerWorld world = (ServerWorld)event.world;
+            for (ServerPlayerEntity player : world.getPlayers())
+                update(player, world);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onWorldUnload(WorldEvent.Unload event) {
+        final IWorld world = event.getWorld();
+        if (world instanceof ServerWorld) {
+            synchronized (CELLS) {
+                final Long2ObjectMap<List<ServerPlayerEntity>> cells = CELLS.remove(((ServerWorld)world).getDimensionKey());
+                if (cells != null)
+                    cells.values().forEach(players -> players.forEach(PLAYERS::remove));
+            }
+        }
+    }
+
+    private static class Entry {
+        private final RegistryKey<World> dim;
+        private final long cell;
+
+        private Entry(RegistryKey<World> dim, long cell) {
+            this.dim = dim;
+            this.cell = cell;
+        }
+    }
+}
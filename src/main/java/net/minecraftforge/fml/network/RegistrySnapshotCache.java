@@ -0,0 +1,151 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.fml.network;
+
+import com.google.common.hash.Hashing;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
+import net.minecraft.network.NetworkManager;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.fml.loading.FMLPaths;
+import net.minecraftforge.registries.ForgeRegistry;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static net.minecraftforge.fml.network.FMLHandshakeHandler.FMLHSMARKER;
+
+/**
+ * Client side cache of the registry snapshots received from a server during the handshake, so that reconnecting
+ * only transfers the registries whose content changed. Entries are stored per server address under
+ * {@code registrycache} in the game directory, along with the hash the server sent for them.
+ * Registry names come from the server, so files are named by a hash of the name rather than the name itself.
+ */
+class RegistrySnapshotCache
+{
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    @Nullable
+    private final Path directory;
+    private final Map<ResourceLocation, Pair<String, ForgeRegistry.Snapshot>> entries = new HashMap<>();
+
+    private RegistrySnapshotCache(@Nullable Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Loads the cached snapshots of the given registries for the server on the other end of the connection.
+     * Local connections never send registry data, so they get an empty cache.
+     */
+    static RegistrySnapshotCache load(NetworkManager manager, Collection<ResourceLocation> registries)
+    {
+        SocketAddress address = manager.getRemoteAddress();
+        if (manager.isLocalChannel() || !(address instanceof InetSocketAddress))
+            return new RegistrySnapshotCache(null);
+
+        InetSocketAddress inet = (InetSocketAddress)address;
+        String serverId = (inet.getHostString() + "_" + inet.getPort()).replaceAll("[^a-zA-Z0-9._-]", "_");
+        RegistrySnapshotCache cache = new RegistrySnapshotCache(FMLPaths.GAMEDIR.get().resolve("registrycache").resolve(serverId));
+        for (ResourceLocation name : registries)
+        {
+            File file = cache.getFile(name);
+            if (!file.exists())
+                continue;
+            try
+            {
+                CompoundNBT nbt = CompressedStreamTools.readCompressed(file);
+                cache.entries.put(name, Pair.of(nbt.getString("hash"), ForgeRegistry.Snapshot.read(nbt.getCompound("snapshot"))));
+            }
+            catch (IOException | RuntimeException e)
+            {
+                LOGGER.warn(FMLHSMARKER, "Failed to read cached registry snapshot {}, it will be requested from the server", file, e);
+            }
+        }
+        LOGGER.debug(FMLHSMARKER, "Loaded {} cached registry snapshots for {}", cache.entries.size(), serverId);
+        return cache;
+    }
+
+    /**
+     * @return The hash of each registry's cached snapshot, with an empty string for the registries that are not cached
+     */
+    Map<ResourceLocation, String> getHashes(Collection<ResourceLocation> registries)
+    {
+        Map<ResourceLocation, String> ret = new HashMap<>();
+        if (this.directory != null)
+            registries.forEach(name -> ret.put(name, this.entries.containsKey(name) ? this.entries.get(name).getLeft() : ""));
+        return ret;
+    }
+
+    @Nullable
+    ForgeRegistry.Snapshot get(ResourceLocation name, String hash)
+    {
+        Pair<String, ForgeRegistry.Snapshot> entry = this.entries.get(name);
+        return entry != null && entry.getLeft().equals(hash) ? entry.getRight() : null;
+    }
+
+    void store(ResourceLocation name, String hash, ForgeRegistry.Snapshot snapshot)
+    {
+        if (this.directory == null)
+            return;
+        this.entries.put(name, Pair.of(hash, snapshot));
+        File file = getFile(name);
+        try
+        {
+            Files.createDirectories(this.directory);
+            CompoundNBT nbt = new CompoundNBT();
+            nbt.putString("hash", hash);
+            nbt.put("snapshot", snapshot.write());
+            CompressedStreamTools.writeCompressed(nbt, file);
+        }
+        catch (IOException e)
+        {
+            LOGGER.warn(FMLHSMARKER, "Failed to write cached registry snapshot {}", file, e);
+        }
+    }
+
+    void remove(ResourceLocation name)
+    {
+        this.entries.remove(name);
+        if (this.directory != null)
+            getFile(name).delete();
+    }
+
+    private File getFile(ResourceLocation name)
+    {
+        String fileName = Hashing.sha256().hashString(name.toString(), StandardCharsets.UTF_8).toString() + ".dat";
+        Path file = this.directory.resolve(fileName).normalize();
+        if (!file.getParent().equals(this.directory.normalize()))
+            throw new IllegalStateException("Cached registry snapshot " + name + " resolved outside of " + this.directory);
+        return file.toFile();
+    }
+}
@@ -41,6 +41,10 @@ public class IndexedMessageCodec
 {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final Marker SIMPLENET = MarkerManager.getMarker("SIMPLENET");
+    /**
+     * Discriminator of a frame holding several length prefixed messages, see {@link SimpleChannel#sendBatched}.
+     */
+    public static final int BATCH_INDEX = 0xff;
     private final Short2ObjectArrayMap<MessageHandler<?>> indicies = new Short2ObjectArrayMap<>();
     private final Object2ObjectArrayMap<Class<?>, MessageHandler<?>> types = new Object2ObjectArrayMap<>();
     private final NetworkInstance networkInstance;
@@ -73,6 +77,7 @@ public class IndexedMessageCodec
         private final Optional<NetworkDirection> networkDirection;
         private Optional<BiConsumer<MSG, Integer>> loginIndexSetter;
         private Optional<Function<MSG, Integer>> loginIndexGetter;
+        private Function<MSG, ?> coalescingKey;
 
         public MessageHandler(int index, Class<MSG> messageType, BiConsumer<MSG, PacketBuffer> encoder, Function<PacketBuffer, MSG> decoder, BiConsumer<MSG, Supplier<NetworkEvent.Context>> messageConsumer, final Optional<NetworkDirection> networkDirection)
         {
@@ -105,6 +110,14 @@ public class IndexedMessageCodec
             return this.loginIndexGetter;
         }
 
+        void setCoalescingKey(Function<MSG, ?> coalescingKey) {
+            this.coalescingKey = coalescingKey;
+        }
+
+        Object getCoalescingKey(MSG message) {
+            return this.coalescingKey == null ? null : this.coalescingKey.apply(message);
+        }
+
         MSG newInstance() {
             try {
                 return messageType.newInstance();
@@ -154,6 +167,14 @@ public class IndexedMessageCodec
         }
         short discriminator = payload.readUnsignedByte();
         final MessageHandler<?> messageHandler = indicies.get(discriminator);
+        if (messageHandler == null && discriminator == BATCH_INDEX) {
+            int count = payload.readInt();
+            for (int i = 0; i < count; i++) {
+                int length = payload.readVarInt();
+                consume(new PacketBuffer(payload.readSlice(length)), payloadIndex, context);
+            }
+            return;
+        }
         if (messageHandler == null) {
             LOGGER.error(SIMPLENET, "Received invalid discriminator byte {} on channel {}", discriminator, Optional.ofNullable(networkInstance).map(NetworkInstance::getChannelName).map(Objects::toString).orElse("MISSING CHANNEL"));
             return;
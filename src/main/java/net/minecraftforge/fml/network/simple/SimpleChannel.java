@@ -25,13 +25,19 @@ import net.minecraft.network.NetworkManager;
 import net.minecraft.network.IPacket;
 import net.minecraft.network.PacketBuffer;
 import net.minecraft.util.text.StringTextComponent;
+import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.network.*;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -45,6 +51,13 @@ public class SimpleChannel
     private final IndexedMessageCodec indexedCodec;
     private final Optional<Consumer<NetworkEvent.ChannelRegistrationChangeEvent>> registryChangeConsumer;
     private List<Function<Boolean, ? extends List<? extends Pair<String,?>>>> loginPackets;
+    // Queued batches per logical side that sends them, keyed by PacketTarget#getKey
+    private final Map<LogicalSide, Map<Object, Batch>> batches = new EnumMap<>(LogicalSide.class);
+    private static final Map<LogicalSide, Set<SimpleChannel>> pendingBatches = new EnumMap<>(LogicalSide.class);
+    static {
+        for (LogicalSide side : LogicalSide.values())
+            pendingBatches.put(side, Collections.newSetFromMap(new ConcurrentHashMap<>()));
+    }
 
     public SimpleChannel(NetworkInstance instance) {
         this(instance, Optional.empty());
@@ -57,6 +70,8 @@ public class SimpleChannel
         instance.addListener(this::networkEventListener);
         instance.addGatherListener(this::networkLoginGather);
         this.registryChangeConsumer = registryChangeNotify;
+        for (LogicalSide side : LogicalSide.values())
+            this.batches.put(side, new LinkedHashMap<>());
     }
 
     public SimpleChannel(NetworkInstance instance, Consumer<NetworkEvent.ChannelRegistrationChangeEvent> registryChangeNotify) {
@@ -124,6 +139,115 @@ public class SimpleChannel
         target.send(toVanillaPacket(message, target.getDirection()));
     }
 
+    /**
+     * Queue a message to be sent to the {@link PacketDistributor.PacketTarget} at the end of the current tick.
+     * All messages queued during a tick for targets with the same distributor and value, see
+     * {@link PacketDistributor.PacketTarget#getKey()}, are framed into as few custom payload packets as possible.
+     * Messages are sent in the order they were queued, by the logical side that sends them.
+     * <p>
+     * If the message type was registered with a {@link MessageBuilder#coalesce(Function) coalescing key}, a queued
+     * message of the same type and key for the same target is dropped and the new one queued last, so only the latest
+     * state is sent.
+     * <p>
+     * Batched messages use the discriminator {@value IndexedMessageCodec#BATCH_INDEX}, which can thus not be used for a
+     * message on a channel that uses batching.
+     *
+     * @param target The curried target from a PacketDistributor
+     * @param message The message to send
+     * @param <MSG> The type of the message
+     */
+    public <MSG> void sendBatched(PacketDistributor.PacketTarget target, MSG message) {
+        if (this.indexedCodec.findIndex((short)IndexedMessageCodec.BATCH_INDEX) != null)
+            throw new IllegalStateException("Can not batch messages on channel " + instance.getChannelName() + ", discriminator " + IndexedMessageCodec.BATCH_INDEX + " is in use");
+        final IndexedMessageCodec.MessageHandler<MSG> handler = this.indexedCodec.findMessageType(message);
+        final Object key = handler == null ? null : handler.getCoalescingKey(message);
+        final Object messageKey = key == null ? new Object() : Pair.of(handler, key);
+        final LogicalSide side = target.getDirection().getOriginationSide();
+        final Map<Object, Batch> sideBatches = batches.get(side);
+        synchronized (sideBatches) {
+            final Map<Object, Object> messages = sideBatches.computeIfAbsent(target.getKey(), k -> new Batch(target)).messages;
+            messages.remove(messageKey);
+            messages.put(messageKey, message);
+        }
+        pendingBatches.get(side).add(this);
+    }
+
+    /**
+     * Sends all messages queued with {@link #sendBatched(PacketDistributor.PacketTarget, Object)} by the given side.
+     * Called by Forge at the end of every tick of that side, on its thread.
+     */
+    public static void flushBatches(LogicalSide side) {
+        final Set<SimpleChannel> pending = pendingBatches.get(side);
+        for (SimpleChannel channel : pending) {
+            pending.remove(channel);
+            channel.flush(side);
+        }
+    }
+
+    private void flush(LogicalSide side) {
+        final Map<Object, Batch> sideBatches = batches.get(side);
+        final List<Batch> toSend;
+        synchronized (sideBatches) {
+            if (sideBatches.isEmpty())
+                return;
+            toSend = new ArrayList<>(sideBatches.values());
+            sideBatches.clear();
+        }
+        final PacketBuffer scratch = new PacketBuffer(Unpooled.buffer());
+        toSend.forEach(batch -> {
+            final PacketDistributor.PacketTarget target = batch.target;
+            final Map<Object, Object> messages = batch.messages;
+            if (messages.size() == 1) {
+                send(target, messages.values().iterator().next());
+                return;
+            }
+            final int limit = target.getDirection() == NetworkDirection.PLAY_TO_SERVER ? Short.MAX_VALUE : 1048576;
+            PacketBuffer frame = null;
+            int count = 0;
+            int countIndex = 0;
+            for (Object message : messages.values()) {
+                scratch.clear();
+                encodeMessage(message, scratch);
+                final int length = scratch.readableBytes();
+                if (frame != null && frame.writerIndex() + length + 10 > limit) {
+                    sendFrame(target, frame, countIndex, count);
+                    frame = null;
+                }
+                if (length + 10 > limit) { // Too big to frame, the packet itself will complain if it is too large.
+                    send(target, message);
+                    continue;
+                }
+                if (frame == null) {
+                    frame = new PacketBuffer(Unpooled.buffer());
+                    frame.writeByte(IndexedMessageCodec.BATCH_INDEX);
+                    countIndex = frame.writerIndex();
+                    frame.writeInt(0);
+                    count = 0;
+                }
+                frame.writeVarInt(length);
+                frame.writeBytes(scratch);
+                count++;
+            }
+            if (frame != null)
+                sendFrame(target, frame, countIndex, count);
+        });
+        scratch.release();
+    }
+
+    private static class Batch {
+        private final PacketDistributor.PacketTarget target;
+        private final Map<Object, Object> messages = new LinkedHashMap<>();
+
+        private Batch(PacketDistributor.PacketTarget target) {
+            this.target = target;
+        }
+    }
+
+    private void sendFrame(PacketDistributor.PacketTarget target, PacketBuffer frame, int countIndex, int count) {
+        frame.setInt(countIndex, count);
+        target.send(target.getDirection().buildPacket(Pair.of(frame, Integer.MIN_VALUE), instance.getChannelName()).getThis());
+    }
+
     public <MSG> IPacket<?> toVanillaPacket(MSG message, NetworkDirection direction)
     {
         return direction.buildPacket(toBuffer(message), instance.getChannelName()).getThis();
@@ -171,6 +295,7 @@ public class SimpleChannel
         private BiConsumer<MSG, Integer> loginIndexSetter;
         private Function<Boolean, List<Pair<String, MSG>>> loginPacketGenerators;
         private Optional<NetworkDirection> networkDirection;
+        private Function<MSG, ?> coalescingKey;
 
         private static <MSG> MessageBuilder<MSG> forType(final SimpleChannel channel, final Class<MSG> type, int id, NetworkDirection networkDirection) {
             MessageBuilder<MSG> builder = new MessageBuilder<>();
@@ -214,6 +339,17 @@ public class SimpleChannel
             return this;
         }
 
+        /**
+         * Allows messages of this type queued with {@link SimpleChannel#sendBatched(PacketDistributor.PacketTarget, Object)}
+         * to replace earlier queued messages with an equal key, for messages that carry the full state of something.
+         * @param coalescingKey Returns the key for a message, messages with a null key are never replaced
+         * @return this
+         */
+        public MessageBuilder<MSG> coalesce(Function<MSG, ?> coalescingKey) {
+            this.coalescingKey = coalescingKey;
+            return this;
+        }
+
         public MessageBuilder<MSG> consumer(BiConsumer<MSG, Supplier<NetworkEvent.Context>> consumer) {
             this.consumer = consumer;
             return this;
@@ -250,6 +386,9 @@ public class SimpleChannel
             if (this.loginPacketGenerators != null) {
                 this.channel.loginPackets.add(this.loginPacketGenerators);
             }
+            if (this.coalescingKey != null) {
+                message.setCoalescingKey(this.coalescingKey);
+            }
         }
     }
 }
@@ -25,8 +25,7 @@ import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
 import javax.annotation.Nonnull;
 
-
-import javax.annotation.Nonnull;
+import java.util.function.Predicate;
 
 public interface IItemHandler
 {
@@ -120,4 +119,24 @@ public interface IItemHandler
      *         false if the slot can never insert the ItemStack in any situation.
      */
     boolean isItemValid(int slot, @Nonnull ItemStack stack);
+
+    /**
+     * Moves up to maxItems items matching the filter from this handler into the destination,
+     * going through as many slots as needed in a single call.
+     * <p>
+     * For every slot, the insertion into the destination is simulated first and only the accepted
+     * amount is extracted, so items are not lost when the destination fills up.
+     * Implementations may override this to avoid the intermediate copies of the default implementation.
+     * </p>
+     * @param destination The handler to move the items into.
+     * @param filter      Selects which stacks may be moved. It is given the stack in the slot and MUST NOT modify it.
+     * @param maxItems    The maximum number of items to move.
+     * @param simulate    If true, nothing is moved. Earlier slots of the same call are not accounted for,
+     *                    so the result of a simulation may be higher than what a real transfer moves.
+     * @return The number of items moved (or that would have been moved, if simulated).
+     */
+    default int transferItems(IItemHandler destination, Predicate<ItemStack> filter, int maxItems, boolean simulate)
+    {
+        return ItemHandlerHelper.transferItems(this, destination, filter, maxItems, simulate);
+    }
 }
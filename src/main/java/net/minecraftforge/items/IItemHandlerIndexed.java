@@ -0,0 +1,57 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.items;
+
+import net.minecraft.item.ItemStack;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Optional extension of {@link IItemHandler} for handlers that keep an index of their slots.
+ * Helpers such as {@link ItemHandlerHelper#insertItemStacked} and the hopper hooks in
+ * {@link VanillaInventoryCodeHooks} use it to visit only the slots that can accept a stack,
+ * instead of every slot of the handler.
+ *
+ * The results are hints: callers must still check the slot contents and go through
+ * {@link #insertItem} as usual. Implementations must account for stacks returned by {@link #getStackInSlot}
+ * having been grown, shrunk or otherwise changed by the caller since.
+ */
+public interface IItemHandlerIndexed extends IItemHandler
+{
+    /**
+     * Every slot whose item and tag match the stack must be found, slots that do not match may be.
+     * Iterate with {@code for (int i = getNextStackableSlot(stack, 0); i >= 0; i = getNextStackableSlot(stack, i + 1))}.
+     *
+     * @param stack The stack to find matching slots for.
+     * @param fromSlot The first slot to check.
+     * @return The first slot at or after fromSlot holding items that may stack with the given stack, or -1 if there is none.
+     */
+    int getNextStackableSlot(@Nonnull ItemStack stack, int fromSlot);
+
+    /**
+     * @param fromSlot The first slot to check.
+     * @return The first empty slot at or after fromSlot, or -1 if there is none.
+     */
+    int getNextEmptySlot(int fromSlot);
+
+    /**
+     * @return The number of slots that are not empty.
+     */
+    int getOccupiedSlots();
+}
@@ -0,0 +1,201 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+package net.minecraftforge.items;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.util.NonNullList;
+
+import javax.annotation.Nonnull;
+import java.util.BitSet;
+
+/**
+ * An {@link ItemStackHandler} that indexes its slots by item and tag, and keeps a bitmap of occupied slots.
+ * Meant for handlers with many slots, where scanning every slot on each insertion gets expensive.
+ *
+ * The index is updated whenever the contents change through this handler. Callers such as
+ * {@link net.minecraft.inventory.container.Container#mergeItemStack} also grow and shrink the stacks returned by
+ * {@link #getStackInSlot}, so every slot handed out that way is checked again the next time the index is queried.
+ * Subclasses that change {@link #stacks} directly must call {@link #updateIndex} or {@link #rebuildIndex}.
+ */
+public class IndexedItemStackHandler extends ItemStackHandler implements IItemHandlerIndexed
+{
+    private final Int2ObjectMap<BitSet> slotsByKey = new Int2ObjectOpenHashMap<>();
+    private final BitSet occupied = new BitSet();
+    private final BitSet exposed = new BitSet();
+    private int[] slotKeys;
+
+    public IndexedItemStackHandler()
+    {
+        this(1);
+    }
+
+    public IndexedItemStackHandler(int size)
+    {
+        super(size);
+        rebuildIndex();
+    }
+
+    public IndexedItemStackHandler(NonNullList<ItemStack> stacks)
+    {
+        super(stacks);
+        rebuildIndex();
+    }
+
+    @Override
+    public void setSize(int size)
+    {
+        super.setSize(size);
+        rebuildIndex();
+    }
+
+    @Override
+    public void setStackInSlot(int slot, @Nonnull ItemStack stack)
+    {
+        super.setStackInSlot(slot, stack);
+        updateIndex(slot);
+    }
+
+    @Override
+    @Nonnull
+    public ItemStack getStackInSlot(int slot)
+    {
+        ItemStack stack = super.getStackInSlot(slot);
+        exposed.set(slot);
+        return stack;
+    }
+
+    @Override
+    @Nonnull
+    public ItemStack insertItem(int slot, @Nonnull ItemStack stack, boolean simulate)
+    {
+        ItemStack remainder = super.insertItem(slot, stack, simulate);
+        if (!simulate)
+            updateIndex(slot);
+        return remainder;
+    }
+
+    @Override
+    @Nonnull
+    public ItemStack extractItem(int slot, int amount, boolean simulate)
+    {
+        ItemStack extracted = super.extractItem(slot, amount, simulate);
+        if (!simulate)
+            updateIndex(slot);
+        return extracted;
+    }
+
+    @Override
+    public void deserializeNBT(CompoundNBT nbt)
+    {
+        super.deserializeNBT(nbt);
+        rebuildIndex();
+    }
+
+    @Override
+    public int getNextStackableSlot(@Nonnull ItemStack stack, int fromSlot)
+    {
+        if (stack.isEmpty())
+            return -1;
+        updateExposed();
+        BitSet slots = slotsByKey.get(getKey(stack));
+        return slots == null ? -1 : slots.nextSetBit(Math.max(fromSlot, 0));
+    }
+
+    @Override
+    public int getNextEmptySlot(int fromSlot)
+    {
+        updateExposed();
+        int slot = occupied.nextClearBit(Math.max(fromSlot, 0));
+        return slot < stacks.size() ? slot : -1;
+    }
+
+    @Override
+    public int getOccupiedSlots()
+    {
+        updateExposed();
+        return occupied.cardinality();
+    }
+
+    /**
+     * Rebuilds the whole index from the current contents.
+     * Subclasses that replace {@link #stacks} directly must call this afterwards.
+     */
+    protected void rebuildIndex()
+    {
+        slotsByKey.clear();
+        occupied.clear();
+        exposed.clear();
+        slotKeys = new int[stacks.size()];
+        for (int slot = 0; slot < stacks.size(); slot++)
+            updateIndex(slot);
+    }
+
+    /**
+     * Updates the index entry of a single slot from its current contents.
+     * Subclasses that change {@link #stacks} directly must call this afterwards.
+     */
+    protected void updateIndex(int slot)
+    {
+        ItemStack stack = stacks.get(slot);
+        int key = stack.isEmpty() ? 0 : getKey(stack);
+        if (occupied.get(slot))
+        {
+            if (!stack.isEmpty() && slotKeys[slot] == key)
+                return;
+            BitSet slots = slotsByKey.get(slotKeys[slot]);
+            if (slots != null)
+            {
+                slots.clear(slot);
+                if (slots.isEmpty())
+                    slotsByKey.remove(slotKeys[slot]);
+            }
+            occupied.clear(slot);
+        }
+
+        if (!stack.isEmpty())
+        {
+            slotKeys[slot] = key;
+            occupied.set(slot);
+            slotsByKey.computeIfAbsent(key, k -> new BitSet()).set(slot);
+        }
+    }
+
+    /**
+     * Brings the slots handed out by {@link #getStackInSlot} since the last query up to date,
+     * their stacks may have been changed without going through this handler.
+     */
+    private void updateExposed()
+    {
+        for (int slot = exposed.nextSetBit(0); slot >= 0; slot = exposed.nextSetBit(slot + 1))
+        {
+            if (slot < stacks.size())
+                updateIndex(slot);
+        }
+        exposed.clear();
+    }
+
+    private static int getKey(ItemStack stack)
+    {
+        CompoundNBT tag = stack.getTag();
+        return 31 * System.identityHashCode(stack.getItem()) + (tag == null ? 0 : tag.hashCode());
+    }
+}
@@ -30,6 +30,7 @@ import net.minecraftforge.items.wrapper.PlayerMainInvWrapper;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.function.Predicate;
 
 public class ItemHandlerHelper
 {
@@ -105,6 +106,11 @@ public class ItemHandlerHelper
         if (inventory == null || stack.isEmpty())
             return stack;
 
+        if (inventory instanceof IItemHandlerIndexed)
+        {
+            return insertItemStackedIndexed((IItemHandlerIndexed) inventory, stack, simulate);
+        }
+
         // not stackable -> just insert into a new slot
         if (!stack.isStackable())
         {
@@ -148,6 +154,84 @@ public class ItemHandlerHelper
         return stack;
     }
 
+    /**
+     * Same as {@link #insertItemStacked}, but only visits the slots the handler's index reports
+     * as matching or empty instead of every slot.
+     */
+    @Nonnull
+    private static ItemStack insertItemStackedIndexed(IItemHandlerIndexed inventory, @Nonnull ItemStack stack, boolean simulate)
+    {
+        // not stackable items can still only go where the same item already is (if the handler allows it) or into empty slots
+        boolean stackable = stack.isStackable();
+
+        // go through the matching slots and try to fill up already existing items
+        for (int i = inventory.getNextStackableSlot(stack, 0); i >= 0; i = inventory.getNextStackableSlot(stack, i + 1))
+        {
+            if (!stackable || canItemStacksStackRelaxed(inventory.getStackInSlot(i), stack))
+            {
+                stack = inventory.insertItem(i, stack, simulate);
+
+                if (stack.isEmpty())
+                {
+                    return ItemStack.EMPTY;
+                }
+            }
+        }
+
+        // insert remainder into empty slots
+        for (int i = inventory.getNextEmptySlot(0); i >= 0 && !stack.isEmpty(); i = inventory.getNextEmptySlot(i + 1))
+        {
+            if (inventory.getStackInSlot(i).isEmpty())
+            {
+                stack = inventory.insertItem(i, stack, simulate);
+            }
+        }
+
+        return stack;
+    }
+
+    /**
+     * Default implementation of {@link IItemHandler#transferItems}, built on simulated extractions and insertions.
+     */
+    public static int transferItems(IItemHandler source, IItemHandler destination, Predicate<ItemStack> filter, int maxItems, boolean simulate)
+    {
+        int moved = 0;
+        for (int slot = 0; slot < source.getSlots() && moved < maxItems; slot++)
+        {
+            ItemStack available = source.extractItem(slot, maxItems - moved, true);
+            if (available.isEmpty() || !filter.test(available))
+                continue;
+
+            moved += transferItemsFromSlot(source, slot, destination, available, simulate);
+        }
+        return moved;
+    }
+
+    /**
+     * Moves the offered items from one slot of the source into the destination.
+     * The destination is simulated first, then the accepted items are inserted and exactly the amount the
+     * destination really took is extracted from the source, so no items are ever left without a place.
+     *
+     * @param offered The items to move. Must be available for extraction from the slot, and is not modified.
+     * @return The number of items moved (or that would have been moved, if simulated).
+     */
+    public static int transferItemsFromSlot(IItemHandler source, int slot, IItemHandler destination, @Nonnull ItemStack offered, boolean simulate)
+    {
+        int accepted = offered.getCount() - insertItemStacked(destination, offered, true).getCount();
+        if (accepted <= 0 || simulate)
+            return Math.max(accepted, 0);
+
+        // never insert more than the source really gives up, or the difference would be duplicated
+        accepted = Math.min(accepted, source.extractItem(slot, accepted, true).getCount());
+        if (accepted <= 0)
+            return 0;
+        int moved = accepted - insertItemStacked(destination, copyStackWithSize(offered, accepted), false).getCount();
+        if (moved <= 0)
+            return 0;
+        source.extractItem(slot, moved, false);
+        return moved;
+    }
+
     /** giveItemToPlayer without preferred slot */
     public static void giveItemToPlayer(PlayerEntity player, @Nonnull ItemStack stack) {
         giveItemToPlayer(player, stack, -1);
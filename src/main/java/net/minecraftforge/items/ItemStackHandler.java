@@ -27,6 +27,7 @@ import net.minecraftforge.common.util.Constants;
 import net.minecraftforge.common.util.INBTSerializable;
 
 import javax.annotation.Nonnull;
+import java.util.function.Predicate;
 
 public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, INBTSerializable<CompoundNBT>
 {
@@ -160,6 +161,30 @@ public class ItemStackHandler implements IItemHandler, IItemHandlerModifiable, I
         }
     }
 
+    @Override
+    public int transferItems(IItemHandler destination, Predicate<ItemStack> filter, int maxItems, boolean simulate)
+    {
+        int moved = 0;
+        for (int slot = 0; slot < stacks.size() && moved < maxItems; slot++)
+        {
+            ItemStack existing = this.stacks.get(slot);
+            if (existing.isEmpty() || !filter.test(existing))
+                continue;
+
+            int amount = Math.min(maxItems - moved, Math.min(existing.getCount(), existing.getMaxStackSize()));
+            // a real transfer asks extractItem what may be extracted before moving anything, so only simulations have to ask it here.
+            // offering the stored stack itself is fine, simulated insertions never modify or keep it
+            ItemStack offered;
+            if (simulate)
+                offered = extractItem(slot, amount, true);
+            else
+                offered = amount == existing.getCount() ? existing : ItemHandlerHelper.copyStackWithSize(existing, amount);
+
+            moved += ItemHandlerHelper.transferItemsFromSlot(this, slot, destination, offered, simulate);
+        }
+        return moved;
+    }
+
     @Override
     public int getSlotLimit(int slot)
     {
@@ -31,6 +31,7 @@ import net.minecraft.util.Direction;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.MathHelper;
 import net.minecraft.world.World;
+import net.minecraftforge.common.capabilities.NeighborCapabilityCache;
 import net.minecraftforge.common.util.LazyOptional;
 
 import org.apache.commons.lang3.tuple.ImmutablePair;
@@ -38,10 +39,16 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
 
 public class VanillaInventoryCodeHooks
 {
+    // hoppers only tick on the server thread
+    private static final Map<IHopper, NeighborCapabilityCache<IItemHandler>> INSERT_CACHES = new WeakHashMap<>();
+    private static final Map<IHopper, NeighborCapabilityCache<IItemHandler>> EXTRACT_CACHES = new WeakHashMap<>();
+
     /**
      * Copied from TileEntityHopper#captureDroppedItems and added capability support
      * @return Null if we did nothing {no IItemHandler}, True if we moved an item, False if we moved no items
@@ -49,38 +56,40 @@ public class VanillaInventoryCodeHooks
     @Nullable
     public static Boolean extractHook(IHopper dest)
     {
-        return getItemHandler(dest, Direction.UP)
-                .map(itemHandlerResult -> {
-                    IItemHandler handler = itemHandlerResult.getKey();
+        IItemHandler handler;
+        if (dest instanceof TileEntity)
+            handler = getNeighborCache(EXTRACT_CACHES, dest, Direction.UP).get(dest.getWorld()).orElse(null);
+        else // hopper minecarts move, a cache would have to be thrown away with every block they pass
+            handler = getItemHandler(dest.getWorld(), dest.getXPos(), dest.getYPos() + 1.0D, dest.getZPos(), Direction.DOWN).map(Pair::getKey).orElse(null);
+        if (handler == null)
+            return null; // TODO bad null
 
-                    for (int i = 0; i < handler.getSlots(); i++)
+        for (int i = 0; i < handler.getSlots(); i++)
+        {
+            ItemStack extractItem = handler.extractItem(i, 1, true);
+            if (!extractItem.isEmpty())
+            {
+                for (int j = 0; j < dest.getSizeInventory(); j++)
+                {
+                    ItemStack destStack = dest.getStackInSlot(j);
+                    if (dest.isItemValidForSlot(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getInventoryStackLimit() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
                     {
-                        ItemStack extractItem = handler.extractItem(i, 1, true);
-                        if (!extractItem.isEmpty())
+                        extractItem = handler.extractItem(i, 1, false);
+                        if (destStack.isEmpty())
+                            dest.setInventorySlotContents(j, extractItem);
+                        else
                         {
-                            for (int j = 0; j < dest.getSizeInventory(); j++)
-                            {
-                                ItemStack destStack = dest.getStackInSlot(j);
-                                if (dest.isItemValidForSlot(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getInventoryStackLimit() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack)))
-                                {
-                                    extractItem = handler.extractItem(i, 1, false);
-                                    if (destStack.isEmpty())
-                                        dest.setInventorySlotContents(j, extractItem);
-                                    else
-                                    {
-                                        destStack.grow(1);
-                                        dest.setInventorySlotContents(j, destStack);
-                                    }
-                                    dest.markDirty();
-                                    return true;
-                                }
-                            }
+                            destStack.grow(1);
+                            dest.setInventorySlotContents(j, destStack);
                         }
+                        dest.markDirty();
+                        return true;
                     }
+                }
+            }
+        }
 
-                    return false;
-                })
-                .orElse(null); // TODO bad null
+        return false;
     }
 
     /**
@@ -119,41 +128,40 @@ public class VanillaInventoryCodeHooks
     public static boolean insertHook(HopperTileEntity hopper)
     {
         Direction hopperFacing = hopper.getBlockState().get(HopperBlock.FACING);
-        return getItemHandler(hopper, hopperFacing)
-                .map(destinationResult -> {
-                    IItemHandler itemHandler = destinationResult.getKey();
-                    Object destination = destinationResult.getValue();
-                    if (isFull(itemHandler))
-                    {
-                        return false;
-                    }
-                    else
-                    {
-                        for (int i = 0; i < hopper.getSizeInventory(); ++i)
-                        {
-                            if (!hopper.getStackInSlot(i).isEmpty())
-                            {
-                                ItemStack originalSlotContents = hopper.getStackInSlot(i).copy();
-                                ItemStack insertStack = hopper.decrStackSize(i, 1);
-                                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
+        NeighborCapabilityCache<IItemHandler> cache = getNeighborCache(INSERT_CACHES, hopper, hopperFacing);
+        IItemHandler itemHandler = cache.get(hopper.getWorld()).orElse(null);
+        if (itemHandler == null || isFull(itemHandler))
+        {
+            return false;
+        }
 
-                                if (remainder.isEmpty())
-                                {
-                                    return true;
-                                }
+        Object destination = cache.getTileEntity(hopper.getWorld());
+        for (int i = 0; i < hopper.getSizeInventory(); ++i)
+        {
+            if (!hopper.getStackInSlot(i).isEmpty())
+            {
+                ItemStack originalSlotContents = hopper.getStackInSlot(i).copy();
+                ItemStack insertStack = hopper.decrStackSize(i, 1);
+                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
 
-                                hopper.setInventorySlotContents(i, originalSlotContents);
-                            }
-                        }
+                if (remainder.isEmpty())
+                {
+                    return true;
+                }
 
-                        return false;
-                    }
-                })
-                .orElse(false);
+                hopper.setInventorySlotContents(i, originalSlotContents);
+            }
+        }
+
+        return false;
     }
 
     private static ItemStack putStackInInventoryAllSlots(TileEntity source, Object destination, IItemHandler destInventory, ItemStack stack)
     {
+        if (destInventory instanceof IItemHandlerIndexed)
+        {
+            return putStackInIndexedSlots(source, destination, (IItemHandlerIndexed) destInventory, stack);
+        }
         for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++)
         {
             stack = insertStack(source, destination, destInventory, stack, slot);
@@ -161,6 +169,27 @@ public class VanillaInventoryCodeHooks
         return stack;
     }
 
+    /**
+     * Visits the matching and empty slots of an indexed handler in ascending order,
+     * which are the only slots {@link #insertStack} can put anything into.
+     */
+    private static ItemStack putStackInIndexedSlots(TileEntity source, Object destination, IItemHandlerIndexed destInventory, ItemStack stack)
+    {
+        int stackable = destInventory.getNextStackableSlot(stack, 0);
+        int empty = destInventory.getNextEmptySlot(0);
+        while (!stack.isEmpty() && (stackable >= 0 || empty >= 0))
+        {
+            int slot = empty < 0 || (stackable >= 0 && stackable < empty) ? stackable : empty;
+            stack = insertStack(source, destination, destInventory, stack, slot);
+            // look up both from the slot just visited, as inserting into it may have changed either kind
+            if (stackable >= 0)
+                stackable = destInventory.getNextStackableSlot(stack, slot + 1);
+            if (empty >= 0)
+                empty = destInventory.getNextEmptySlot(slot + 1);
+        }
+        return stack;
+    }
+
     /**
      * Copied from TileEntityHopper#insertStack and added capability support
      */
@@ -211,16 +240,34 @@ public class VanillaInventoryCodeHooks
         return stack;
     }
 
-    private static Optional<Pair<IItemHandler, Object>> getItemHandler(IHopper hopper, Direction hopperFacing)
+    /**
+     * Hoppers look at the same neighbor every few ticks, so the item handler found there is cached per hopper.
+     */
+    private static NeighborCapabilityCache<IItemHandler> getNeighborCache(Map<IHopper, NeighborCapabilityCache<IItemHandler>> caches, IHopper hopper, Direction hopperFacing)
     {
-        double x = hopper.getXPos() + (double) hopperFacing.getXOffset();
-        double y = hopper.getYPos() + (double) hopperFacing.getYOffset();
-        double z = hopper.getZPos() + (double) hopperFacing.getZOffset();
-        return getItemHandler(hopper.getWorld(), x, y, z, hopperFacing.getOpposite());
+        int x = MathHelper.floor(hopper.getXPos() + (double) hopperFacing.getXOffset());
+        int y = MathHelper.floor(hopper.getYPos() + (double) hopperFacing.getYOffset());
+        int z = MathHelper.floor(hopper.getZPos() + (double) hopperFacing.getZOffset());
+        Direction side = hopperFacing.getOpposite();
+
+        NeighborCapabilityCache<IItemHandler> cache = caches.get(hopper);
+        // the facing of a hopper can change without it being replaced, so the cached position has to be checked every time
+        BlockPos cachedPos = cache == null ? null : cache.getPos();
+        if (cachedPos == null || cachedPos.getX() != x || cachedPos.getY() != y || cachedPos.getZ() != z || cache.getSide() != side)
+        {
+            // nothing tells a hopper when its neighbor starts exposing an item handler, so a missing one is looked up every time like vanilla does
+            cache = new NeighborCapabilityCache<>(CapabilityItemHandler.ITEM_HANDLER_CAPABILITY, new BlockPos(x, y, z), side, false);
+            caches.put(hopper, cache);
+        }
+        return cache;
     }
 
     private static boolean isFull(IItemHandler itemHandler)
     {
+        if (itemHandler instanceof IItemHandlerIndexed && ((IItemHandlerIndexed) itemHandler).getNextEmptySlot(0) >= 0)
+        {
+            return false;
+        }
         for (int slot = 0; slot < itemHandler.getSlots(); slot++)
         {
             ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
@@ -234,6 +281,10 @@ public class VanillaInventoryCodeHooks
 
     private static boolean isEmpty(IItemHandler itemHandler)
     {
+        if (itemHandler instanceof IItemHandlerIndexed)
+        {
+            return ((IItemHandlerIndexed) itemHandler).getOccupiedSlots() == 0;
+        }
         for (int slot = 0; slot < itemHandler.getSlots(); slot++)
         {
             ItemStack stackInSlot = itemHandler.getStackInSlot(slot);
@@ -21,10 +21,12 @@ package net.minecraftforge.items.wrapper;
 
 import net.minecraft.inventory.IInventory;
 import net.minecraft.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
 import net.minecraftforge.items.IItemHandlerModifiable;
 import net.minecraftforge.items.ItemHandlerHelper;
 
 import javax.annotation.Nonnull;
+import java.util.function.Predicate;
 
 public class InvWrapper implements IItemHandlerModifiable
 {
@@ -192,6 +194,24 @@ public class InvWrapper implements IItemHandlerModifiable
         }
     }
 
+    @Override
+    public int transferItems(IItemHandler destination, Predicate<ItemStack> filter, int maxItems, boolean simulate)
+    {
+        int moved = 0;
+        for (int slot = 0; slot < getInv().getSizeInventory() && moved < maxItems; slot++)
+        {
+            ItemStack stackInSlot = getInv().getStackInSlot(slot);
+            if (stackInSlot.isEmpty() || !filter.test(stackInSlot))
+                continue;
+
+            // offer the stack in the slot itself if all of it may go, simulated insertions never modify or keep it
+            int amount = Math.min(maxItems - moved, stackInSlot.getCount());
+            ItemStack offered = amount == stackInSlot.getCount() ? stackInSlot : ItemHandlerHelper.copyStackWithSize(stackInSlot, amount);
+            moved += ItemHandlerHelper.transferItemsFromSlot(this, slot, destination, offered, simulate);
+        }
+        return moved;
+    }
+
     @Override
     public void setStackInSlot(int slot, @Nonnull ItemStack stack)
     {
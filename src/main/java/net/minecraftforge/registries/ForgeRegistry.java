@@ -46,8 +46,11 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 
 import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import net.minecraft.nbt.CompoundNBT;
 import net.minecraft.nbt.ListNBT;
 import net.minecraft.nbt.StringNBT;
@@ -97,6 +100,8 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     private V defaultValue = null;
     boolean isFrozen = false;
+    @Nullable
+    private volatile IdTables<V> idTables = null;
 
     private final ResourceLocation name;
     private final RegistryKey<Registry<V>> key;
@@ -271,6 +276,14 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
 
     public int getID(V value)
     {
+        IdTables<V> tables = this.idTables;
+        if (tables != null)
+        {
+            int id = tables.valueToId.getInt(value);
+            if (id == -1 && this.defaultValue != null)
+                id = tables.valueToId.getInt(this.defaultValue);
+            return id;
+        }
         Integer ret = this.ids.inverse().get(value);
         if (ret == null && this.defaultValue != null)
             ret = this.ids.inverse().get(this.defaultValue);
@@ -283,6 +296,9 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     }
     private int getIDRaw(V value)
     {
+        IdTables<V> tables = this.idTables;
+        if (tables != null)
+            return tables.valueToId.getInt(value);
         Integer ret = this.ids.inverse().get(value);
         return ret == null ? -1 : ret.intValue();
     }
@@ -291,8 +307,15 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         return getIDRaw(this.names.get(name));
     }
 
+    @SuppressWarnings("unchecked")
     public V getValue(int id)
     {
+        IdTables<V> tables = this.idTables;
+        if (tables != null && tables.idToValue != null)
+        {
+            V ret = id >= 0 && id < tables.idToValue.length ? (V)tables.idToValue[id] : null;
+            return ret == null ? this.defaultValue : ret;
+        }
         V ret = this.ids.get(id);
         return ret == null ? this.defaultValue : ret;
     }
@@ -376,6 +399,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         this.names.put(key, value);
         this.keys.put(RegistryKey.getOrCreateKey(this.key, key), value);
         this.ids.put(idToUse, value);
+        this.idTables = null;
         this.availabilityMap.set(idToUse);
         this.owners.put(new OverrideOwner(owner == null ? key.getPath() : owner, key), value);
 
@@ -522,6 +546,32 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     {
         if (this.bake != null)
             this.bake.onBake(this, this.stage);
+        buildIdTables();
+    }
+
+    /**
+     * Builds the primitive id lookup tables used by {@link #getID(IForgeRegistryEntry)} and {@link #getValue(int)}
+     * once the registry contents are settled. Any change to the ids drops them until they are built again.
+     */
+    private void buildIdTables()
+    {
+        Reference2IntMap<V> valueToId = new Reference2IntOpenHashMap<>(this.ids.size());
+        valueToId.defaultReturnValue(-1);
+        int highest = -1;
+        for (Entry<Integer, V> entry : this.ids.entrySet())
+        {
+            valueToId.put(entry.getValue(), entry.getKey().intValue());
+            highest = Math.max(highest, entry.getKey());
+        }
+        // Only use a dense array when the ids are not spread out too much, otherwise keep using the map for id -> value
+        Object[] idToValue = null;
+        if (highest < this.ids.size() * 2 + 1024)
+        {
+            idToValue = new Object[highest + 1];
+            for (Entry<Integer, V> entry : this.ids.entrySet())
+                idToValue[entry.getKey()] = entry.getValue();
+        }
+        this.idTables = new IdTables<>(idToValue, valueToId);
     }
 
     void sync(ResourceLocation name, ForgeRegistry<V> from)
@@ -546,6 +596,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         from.aliases.forEach(this::addAlias);
 
         this.ids.clear();
+        this.idTables = null;
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
@@ -617,6 +668,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         this.dummies.clear();
 
         this.ids.clear();
+        this.idTables = null;
         this.names.clear();
         this.keys.clear();
         this.availabilityMap.clear(0, this.availabilityMap.length());
@@ -639,6 +691,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
                 throw new IllegalStateException("Removed a entry that did not have an associated RegistryKey: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
             Integer id = this.ids.inverse().remove(value);
+            this.idTables = null;
             if (id == null)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
@@ -667,6 +720,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
     public void freeze()
     {
         this.isFrozen = true;
+        buildIdTables();
     }
 
     public void unfreeze()
@@ -796,6 +850,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
                 throw new IllegalStateException("Removed a entry that did not have an associated RegistryKey: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
             Integer oldid = this.ids.inverse().remove(value);
+            this.idTables = null;
             if (oldid == null)
                 throw new IllegalStateException("Removed a entry that did not have an associated id: " + key + " " + value.toString() + " This should never happen unless hackery!");
 
@@ -848,6 +903,7 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         public final Set<ResourceLocation> dummied = Sets.newTreeSet(sorter);
         public final Map<ResourceLocation, String> overrides = Maps.newTreeMap(sorter);
         private PacketBuffer binary = null;
+        private String hash = null;
 
         public CompoundNBT write()
         {
@@ -969,6 +1025,21 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
             return new PacketBuffer(binary.slice());
         }
 
+        /**
+         * @return A SHA-256 hex digest of the {@link #getPacketData() packet data}, identifying the content of this snapshot.
+         */
+        public synchronized String getHash()
+        {
+            if (hash == null)
+            {
+                PacketBuffer data = getPacketData();
+                byte[] bytes = new byte[data.readableBytes()];
+                data.readBytes(bytes);
+                hash = Hashing.sha256().hashBytes(bytes).toString();
+            }
+            return hash;
+        }
+
         public static Snapshot read(PacketBuffer buff)
         {
             if (buff == null)
@@ -1000,6 +1071,19 @@ public class ForgeRegistry<V extends IForgeRegistryEntry<V>> implements IForgeRe
         }
     }
 
+    private static class IdTables<V>
+    {
+        @Nullable
+        private final Object[] idToValue;
+        private final Reference2IntMap<V> valueToId;
+
+        private IdTables(@Nullable Object[] idToValue, Reference2IntMap<V> valueToId)
+        {
+            this.idToValue = idToValue;
+            this.valueToId = valueToId;
+        }
+    }
+
     public MissingMappings<?> getMissingEvent(ResourceLocation name, Map<ResourceLocation, Integer> map)
     {
         List<MissingMappings.Mapping<V>> lst = Lists.newArrayList();
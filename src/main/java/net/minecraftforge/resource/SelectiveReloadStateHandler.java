@@ -59,7 +59,7 @@ public enum SelectiveReloadStateHandler
      */
     public Predicate<IResourceType> get()
     {
-        if (this.currentPredicate == null || !ForgeConfig.CLIENT.selectiveResourceReloadEnabled.get())
+        if (this.currentPredicate == null || !ForgeConfig.CLIENT.selectiveResourceReloadEnabled.getAsBoolean())
         {
             return ReloadRequirements.all();
         }
@@ -19,135 +19,307 @@
 
 package net.minecraftforge.server.command;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Comparator;
+
+import javax.annotation.Nullable;
 
 import net.minecraft.command.CommandSource;
+import net.minecraft.nbt.CompoundNBT;
+import net.minecraft.nbt.CompressedStreamTools;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.text.TextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.server.ServerChunkProvider;
 import net.minecraft.world.server.ServerWorld;
-import net.minecraft.world.DimensionType;
-import net.minecraft.world.chunk.ChunkStatus;
-import net.minecraft.world.chunk.IChunk;
+import net.minecraft.world.server.TicketType;
+import net.minecraft.world.storage.FolderName;
 import net.minecraftforge.common.WorldWorkerManager.IWorker;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Generates chunks in a spiral around a starting chunk.
+ *
+ * Instead of generating one chunk at a time on the server thread, a bounded window of chunks is requested
+ * through chunk tickets so vanilla's asynchronous chunk pipeline generates them in parallel. Each call to
+ * {@link #doWork()} releases the chunks that finished and tops up the window, unless the amount of loaded
+ * chunks shows that unloading and saving is falling behind. Chunks that do not finish in time are given up on
+ * and counted as failed, so they can not hold a place in the window forever.
+ *
+ * Progress is periodically written to a checkpoint in the world folder, see {@link #resume(CommandSource, ServerWorld)}.
+ */
 public class ChunkGenWorker implements IWorker
 {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final TicketType<ChunkPos> GENERATE = TicketType.create("forge_generate", Comparator.comparingLong(ChunkPos::asLong));
+    private static final FolderName CHECKPOINTS = new FolderName("forge_generate");
+    private static final int WINDOW = Math.max(Runtime.getRuntime().availableProcessors() * 4, 16);
+    private static final int LOADED_PER_REQUEST = 32; // Generating a chunk loads its neighbors at lower statuses, allow some slack for those.
+    private static final int LOADED_DRIFT = 8; // How fast the loaded chunk baseline may rise per tick, lets chunks loaded by others stop counting against us.
+    private static final long CHECKPOINT_INTERVAL = 30 * 1000;
+    private static final long STALL_TIMEOUT = 2 * 60 * 1000;
+
     private final CommandSource listener;
     protected final BlockPos start;
     protected final int total;
     private final ServerWorld dim;
-    private final Queue<BlockPos> queue;
+    private final Spiral spiral;
     private final int notificationFrequency;
+    private int loadedBaseline;
+    private final long[] inFlight = new long[WINDOW];
+    private final int[] inFlightIndex = new int[WINDOW];
+    private final long[] inFlightSince = new long[WINDOW];
+    private int inFlightCount = 0;
     private int lastNotification = 0;
     private long lastNotifcationTime = 0;
+    private long lastCheckpointTime = 0;
+    private int completed = 0;
     private int genned = 0;
-    private Boolean keepingLoaded;
+    private int failed = 0;
 
     public ChunkGenWorker(CommandSource listener, BlockPos start, int total, ServerWorld dim, int interval)
+    {
+        this(listener, start, total, dim, interval, 0, 0);
+    }
+
+    private ChunkGenWorker(CommandSource listener, BlockPos start, int total, ServerWorld dim, int interval, int position, int genned)
     {
         this.listener = listener;
         this.start = start;
         this.total = total;
         this.dim  = dim;
-        this.queue = buildQueue();
+        this.spiral = new Spiral(start.getX(), start.getZ());
+        this.spiral.skip(position);
+        this.completed = position;
+        this.genned = genned;
         this.notificationFrequency = interval != -1 ? interval : Math.max(total / 20, 100); //Every 5% or every 100, whichever is more.
         this.lastNotifcationTime = System.currentTimeMillis(); //We also notify at least once every 60 seconds, to show we haven't froze.
+        this.lastCheckpointTime = this.lastNotifcationTime;
+        this.loadedBaseline = dim.getChunkProvider().getLoadedChunksCount();
     }
 
-    protected Queue<BlockPos> buildQueue()
+    /**
+     * Creates a worker continuing the generation task last checkpointed for the given dimension.
+     *
+     * @return The worker, or null if there is no checkpoint for the dimension.
+     */
+    @Nullable
+    public static ChunkGenWorker resume(CommandSource listener, ServerWorld dim)
     {
-        Queue<BlockPos> ret = new ArrayDeque<BlockPos>();
-        ret.add(start);
-
-        //This *should* spiral outwards, starting on right side, down, left, up, right, but hey we'll see!
-        int radius = 1;
-        while (ret.size() < total)
+        File file = getCheckpoint(dim);
+        if (!file.exists())
+            return null;
+        try
         {
-            for (int q = -radius + 1; q <= radius && ret.size() < total; q++)
-                ret.add(start.add(radius, 0, q));
-
-            for (int q = radius - 1; q >= -radius && ret.size() < total; q--)
-                ret.add(start.add(q, 0, radius));
-
-            for (int q = radius - 1; q >= -radius && ret.size() < total; q--)
-                ret.add(start.add(-radius, 0, q));
-
-            for (int q = -radius + 1; q <= radius && ret.size() < total; q++)
-                ret.add(start.add(q, 0, -radius));
-
-            radius++;
+            CompoundNBT nbt = CompressedStreamTools.readCompressed(file);
+            BlockPos start = new BlockPos(nbt.getInt("x"), 0, nbt.getInt("z"));
+            return new ChunkGenWorker(listener, start, nbt.getInt("total"), dim, nbt.getInt("interval"), nbt.getInt("position"), nbt.getInt("genned"));
+        }
+        catch (IOException e)
+        {
+            LOGGER.error("Failed to read chunk generation checkpoint {}", file, e);
+            return null;
         }
-        return ret;
     }
 
     public TextComponent getStartMessage(CommandSource sender)
     {
-        return new TranslationTextComponent("commands.forge.gen.start", total, start.getX(), start.getZ(), dim);
+        return new TranslationTextComponent("commands.forge.gen.start", total, start.getX(), start.getZ(), dim.getDimensionKey().getLocation());
     }
 
     @Override
     public boolean hasWork()
     {
-        return queue.size() > 0;
+        return spiral.getIndex() < total || inFlightCount > 0;
     }
 
     @Override
     public boolean doWork()
     {
-        /* TODO: Check how many things are pending save, and slow down world gen if to many
-        AnvilChunkLoader loader = dim.getChunkProvider().chunkLoader instanceof AnvilChunkLoader ? (AnvilChunkLoader)world.getChunkProvider().chunkLoader : null;
-        if (loader != null && loader.getPendingSaveCount() > 100)
+        ServerChunkProvider provider = dim.getChunkProvider();
+        long now = System.currentTimeMillis();
+
+        for (int i = 0; i < inFlightCount;)
         {
+            int x = ChunkPos.getX(inFlight[i]);
+            int z = ChunkPos.getZ(inFlight[i]);
+            boolean done = provider.getChunkNow(x, z) != null;
+            if (done || inFlightSince[i] < now - STALL_TIMEOUT)
+            {
+                ChunkPos pos = new ChunkPos(x, z);
+                provider.releaseTicket(GENERATE, pos, 0, pos);
+                completed++;
+                if (done)
+                    genned++; //There isn't a way to check if the chunk is actually created just if it was loaded
+                else
+                {
+                    failed++;
+                    LOGGER.warn("Gave up on generating chunk {} in {} after {} seconds", pos, dim.getDimensionKey().getLocation(), STALL_TIMEOUT / 1000);
+                }
+                inFlightCount--;
+                inFlight[i] = inFlight[inFlightCount];
+                inFlightIndex[i] = inFlightIndex[inFlightCount];
+                inFlightSince[i] = inFlightSince[inFlightCount];
+            }
+            else
+                i++;
+        }
 
-            if (lastNotifcationTime < System.currentTimeMillis() - 10*1000)
+        // Unloaded chunks stay loaded until they are saved, so a chunk count growing faster than the baseline follows
+        // means we are outpacing region I/O. The baseline drops with the count, and slowly rises to it, so chunks
+        // loaded by players only pause generation for a while.
+        int loaded = provider.getLoadedChunksCount();
+        boolean throttled = loaded - loadedBaseline > WINDOW * LOADED_PER_REQUEST;
+        loadedBaseline = Math.min(loaded, loadedBaseline + LOADED_DRIFT);
+        while (!throttled && inFlightCount < WINDOW && spiral.getIndex() < total)
+        {
+            int index = spiral.getIndex();
+            ChunkPos pos = spiral.next();
+            if (provider.getChunkNow(pos.x, pos.z) != null)
             {
-                listener.sendFeedback(new TranslationTextComponent("commands.forge.gen.progress", total - queue.size(), total), true);
-                lastNotifcationTime = System.currentTimeMillis();
+                completed++; // Already loaded, so already generated.
+                continue;
             }
+            provider.registerTicket(GENERATE, pos, 0, pos);
+            inFlight[inFlightCount] = pos.asLong();
+            inFlightIndex[inFlightCount] = index;
+            inFlightSince[inFlightCount] = now;
+            inFlightCount++;
+        }
+
+        if (completed - lastNotification >= notificationFrequency || lastNotifcationTime < now - (throttled ? 10 : 60) * 1000)
+        {
+            listener.sendFeedback(new TranslationTextComponent("commands.forge.gen.progress", completed, total), true);
+            lastNotification = completed;
+            lastNotifcationTime = now;
+        }
+
+        if (!hasWork())
+        {
+            listener.sendFeedback(new TranslationTextComponent("commands.forge.gen.complete", genned, total, dim.getDimensionKey().getLocation()), true);
+            if (failed > 0)
+                LOGGER.warn("{} chunks in {} could not be generated", failed, dim.getDimensionKey().getLocation());
+            deleteCheckpoint();
             return false;
         }
-        */
 
-        BlockPos next = queue.poll();
+        if (lastCheckpointTime < now - CHECKPOINT_INTERVAL)
+        {
+            lastCheckpointTime = now;
+            saveCheckpoint();
+        }
+        return false; // The chunks are generated off thread, nothing more to do until the next tick.
+    }
 
-        if (next != null)
+    private void saveCheckpoint()
+    {
+        int position = spiral.getIndex();
+        for (int i = 0; i < inFlightCount; i++)
+            position = Math.min(position, inFlightIndex[i]);
+
+        CompoundNBT nbt = new CompoundNBT();
+        nbt.putInt("x", start.getX());
+        nbt.putInt("z", start.getZ());
+        nbt.putInt("total", total);
+        nbt.putInt("interval", notificationFrequency);
+        nbt.putInt("position", position);
+        nbt.putInt("genned", genned);
+        File file = getCheckpoint(dim);
+        try
+        {
+            Files.createDirectories(file.toPath().getParent());
+            CompressedStreamTools.writeCompressed(nbt, file);
+        }
+        catch (IOException e)
         {
-            // While we work we don't want to cause world load spam so pause unloading the world.
-            /* TODO: Readd if/when we introduce world unloading, or get Mojang to do it.
-            if (keepingLoaded == null)
-                keepingLoaded = DimensionManager.keepLoaded(dim, true);
-            */
+            LOGGER.error("Failed to write chunk generation checkpoint {}", file, e);
+        }
+    }
 
-            if (++lastNotification >= notificationFrequency || lastNotifcationTime < System.currentTimeMillis() - 60*1000)
-            {
-                listener.sendFeedback(new TranslationTextComponent("commands.forge.gen.progress", total - queue.size(), total), true);
-                lastNotification = 0;
-                lastNotifcationTime = System.currentTimeMillis();
-            }
+    private void deleteCheckpoint()
+    {
+        File file = getCheckpoint(dim);
+        if (file.exists() && !file.delete())
+            LOGGER.warn("Failed to delete chunk generation checkpoint {}", file);
+    }
 
-            int x = next.getX();
-            int z = next.getZ();
+    private static File getCheckpoint(ServerWorld dim)
+    {
+        String name = dim.getDimensionKey().getLocation().toString().replace(':', '_').replace('/', '_') + ".dat";
+        return dim.getServer().func_240776_a_(CHECKPOINTS).resolve(name).toFile();
+    }
 
-            if (!dim.chunkExists(x, z)) { //Chunk is unloaded
-                IChunk chunk = dim.getChunk(x, z, ChunkStatus.EMPTY, true);
-                if (!chunk.getStatus().isAtLeast(ChunkStatus.FULL)) {
-                    chunk = dim.getChunk(x, z, ChunkStatus.FULL);
-                    genned++; //There isn't a way to check if the chunk is actually created just if it was loaded
-                }
+    /**
+     * Lazily walks a square spiral outwards, starting on the right side, down, left, up, right.
+     */
+    private static class Spiral
+    {
+        private final int x;
+        private final int z;
+        private int index = 0;
+        private int radius = 0;
+        private int leg = 0;
+        private int q = 0;
+
+        private Spiral(int x, int z)
+        {
+            this.x = x;
+            this.z = z;
+        }
+
+        int getIndex()
+        {
+            return index;
+        }
+
+        void skip(int count)
+        {
+            for (int i = 0; i < count; i++)
+                next();
+        }
+
+        ChunkPos next()
+        {
+            if (index++ == 0)
+            {
+                radius = 1;
+                leg = 0;
+                q = -radius + 1;
+                return new ChunkPos(x, z);
+            }
+            ChunkPos ret;
+            switch (leg)
+            {
+                case 0:  ret = new ChunkPos(x + radius, z + q); break;
+                case 1:  ret = new ChunkPos(x + q, z + radius); break;
+                case 2:  ret = new ChunkPos(x - radius, z + q); break;
+                default: ret = new ChunkPos(x + q, z - radius); break;
             }
+            advance();
+            return ret;
         }
 
-        if (queue.size() == 0)
+        private void advance()
         {
-            listener.sendFeedback(new TranslationTextComponent("commands.forge.gen.complete", genned, total, dim.getDimensionKey().getLocation()), true);
-            /* TODO: Readd if/when we introduce world unloading, or get Mojang to do it.
-            if (keepingLoaded != null && !keepingLoaded)
-                DimensionManager.keepLoaded(dim, false);
-            */
-            return false;
+            switch (leg)
+            {
+                case 0:
+                    if (++q > radius) { leg = 1; q = radius - 1; }
+                    break;
+                case 1:
+                    if (--q < -radius) { leg = 2; q = radius - 1; }
+                    break;
+                case 2:
+                    if (--q < -radius) { leg = 3; q = -radius + 1; }
+                    break;
+                default:
+                    if (++q > radius) { radius++; leg = 0; q = -radius + 1; }
+                    break;
+            }
         }
-        return true;
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.command;
+
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import net.minecraft.command.CommandSource;
+import net.minecraft.command.Commands;
+import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraftforge.server.timings.EventTimings;
+
+class CommandEvents
+{
+    static ArgumentBuilder<CommandSource, ?> register()
+    {
+        return Commands.literal("events")
+            .requires(cs->cs.hasPermissionLevel(2)) //permission
+            .then(Commands.literal("start")
+                .executes(ctx -> {
+                    EventTimings.setEnabled(true);
+                    ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.events.enabled"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("stop")
+                .executes(ctx -> {
+                    EventTimings.setEnabled(false);
+                    ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.events.disabled"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("reset")
+                .executes(ctx -> {
+                    EventTimings.reset();
+                    ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.events.reset"), true);
+                    return 0;
+                })
+            )
+            .then(Commands.literal("listeners")
+                .executes(ctx -> CommandTrack.AggregateResults.execute(ctx.getSource(), EventTimings.getListenerTimingData(), name -> name))
+            )
+            .then(Commands.literal("mods")
+                .executes(ctx -> CommandTrack.AggregateResults.execute(ctx.getSource(), EventTimings.getModTimingData(), name -> name))
+            );
+    }
+}
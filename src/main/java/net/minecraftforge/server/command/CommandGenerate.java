@@ -29,6 +29,7 @@ import net.minecraft.command.Commands;
 import net.minecraft.command.arguments.BlockPosArgument;
 import net.minecraft.command.arguments.DimensionArgument;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.text.TranslationTextComponent;
 import net.minecraft.world.server.ServerWorld;
 import net.minecraftforge.common.WorldWorkerManager;
 
@@ -38,6 +39,12 @@ class CommandGenerate
     {
         return Commands.literal("generate")
             .requires(cs->cs.hasPermissionLevel(4)) //permission
+            .then(Commands.literal("resume")
+                .then(Commands.argument("dim", DimensionArgument.getDimension())
+                    .executes(ctx -> resume(ctx.getSource(), DimensionArgument.getDimensionArgument(ctx, "dim")))
+                )
+                .executes(ctx -> resume(ctx.getSource(), ctx.getSource().getWorld()))
+            )
             .then(Commands.argument("pos", BlockPosArgument.blockPos())
                 .then(Commands.argument("count", IntegerArgumentType.integer(1))
                     .then(Commands.argument("dim", DimensionArgument.getDimension())
@@ -66,4 +73,18 @@ class CommandGenerate
 
         return 0;
     }
+
+    private static int resume(CommandSource source, ServerWorld dim) throws CommandException
+    {
+        ChunkGenWorker worker = ChunkGenWorker.resume(source, dim);
+        if (worker == null)
+        {
+            source.sendErrorMessage(new TranslationTextComponent("commands.forge.gen.no_checkpoint", dim.getDimensionKey().getLocation()));
+            return 0;
+        }
+        source.sendFeedback(worker.getStartMessage(source), true);
+        WorldWorkerManager.addWorker(worker);
+
+        return 0;
+    }
 }
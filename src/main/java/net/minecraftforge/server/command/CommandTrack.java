@@ -27,17 +27,23 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import net.minecraft.command.CommandException;
 import net.minecraft.command.CommandSource;
 import net.minecraft.command.Commands;
 import net.minecraft.entity.Entity;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.RegistryKey;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
 import net.minecraft.util.text.ITextComponent;
 import net.minecraft.util.text.TranslationTextComponent;
+import net.minecraft.world.World;
+import net.minecraftforge.registries.IForgeRegistryEntry;
 import net.minecraftforge.server.timings.ForgeTimings;
 import net.minecraftforge.server.timings.TimeTracker;
+import org.apache.commons.lang3.tuple.Pair;
 
 class CommandTrack
 {
@@ -50,7 +56,10 @@ class CommandTrack
             .then(ResetTrackingCommand.register())
             .then(TrackResultsEntity.register())
             .then(TrackResultsTileEntity.register())
-            .then(StartTrackingCommand.register());
+            .then(StartTrackingCommand.register())
+            .then(ContinuousTrackingCommand.register())
+            .then(TrackResultsTypes.register())
+            .then(TrackResultsChunks.register());
     }
 
     private static class StartTrackingCommand
@@ -182,4 +191,104 @@ class CommandTrack
             );
         }
     }
+
+    private static class ContinuousTrackingCommand
+    {
+        static ArgumentBuilder<CommandSource, ?> register()
+        {
+            return Commands.literal("continuous")
+                .requires(cs->cs.hasPermissionLevel(2)) //permission
+                .then(Commands.literal("enable")
+                    .executes(ctx -> {
+                        TimeTracker.TILE_ENTITY_UPDATE.setContinuous(true);
+                        TimeTracker.ENTITY_UPDATE.setContinuous(true);
+                        ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.tracking.continuous.enabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("disable")
+                    .executes(ctx -> {
+                        TimeTracker.TILE_ENTITY_UPDATE.setContinuous(false);
+                        TimeTracker.ENTITY_UPDATE.setContinuous(false);
+                        ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.tracking.continuous.disabled"), true);
+                        return 0;
+                    })
+                )
+                .then(Commands.literal("reset")
+                    .executes(ctx -> {
+                        TimeTracker.TILE_ENTITY_UPDATE.resetContinuous();
+                        TimeTracker.ENTITY_UPDATE.resetContinuous();
+                        ctx.getSource().sendFeedback(new TranslationTextComponent("commands.forge.tracking.continuous.reset"), true);
+                        return 0;
+                    })
+                );
+        }
+    }
+
+    static class AggregateResults
+    {
+        private static String formatTime(double nanos)
+        {
+            return nanos >= 1_000_000 ? TIME_FORMAT.format(nanos / 1_000_000) + "ms" : TIME_FORMAT.format(nanos / 1_000) + "\u03bcs";
+        }
+
+        static <K> int execute(CommandSource source, List<ForgeTimings<K>> timings, Function<K, Object> name)
+        {
+            List<ForgeTimings<K>> sorted = timings.stream()
+                    .sorted(Comparator.comparingDouble((ForgeTimings<K> t) -> t.getTotalTimings()).reversed())
+                    .limit(10)
+                    .collect(Collectors.toList());
+            if (sorted.isEmpty())
+            {
+                source.sendFeedback(new TranslationTextComponent("commands.forge.tracking.no_data"), true);
+                return 0;
+            }
+            for (ForgeTimings<K> data : sorted)
+            {
+                K key = data.getObject().get();
+                if (key == null)
+                    continue;
+                source.sendFeedback(new TranslationTextComponent("commands.forge.tracking.aggregate_entry", name.apply(key), data.getSampleCount(),
+                        formatTime(data.getAverageTimings()), formatTime(data.getPercentileTimings(50)), formatTime(data.getPercentileTimings(95)),
+                        formatTime(data.getPercentileTimings(99)), formatTime(data.getTotalTimings())), true);
+            }
+            return 0;
+        }
+
+        private static Object typeName(Object type)
+        {
+            if (type instanceof IForgeRegistryEntry)
+            {
+                Object name = ((IForgeRegistryEntry<?>)type).getRegistryName();
+                if (name != null)
+                    return name;
+            }
+            return type;
+        }
+
+        private static Object chunkName(Pair<RegistryKey<World>, ChunkPos> chunk)
+        {
+            return chunk.getLeft().getLocation() + " " + chunk.getRight();
+        }
+    }
+
+    private static class TrackResultsTypes
+    {
+        static ArgumentBuilder<CommandSource, ?> register()
+        {
+            return Commands.literal("types")
+                .then(Commands.literal("te").executes(ctx -> AggregateResults.execute(ctx.getSource(), TimeTracker.TILE_ENTITY_UPDATE.getTypeTimingData(), AggregateResults::typeName)))
+                .then(Commands.literal("entity").executes(ctx -> AggregateResults.execute(ctx.getSource(), TimeTracker.ENTITY_UPDATE.getTypeTimingData(), AggregateResults::typeName)));
+        }
+    }
+
+    private static class TrackResultsChunks
+    {
+        static ArgumentBuilder<CommandSource, ?> register()
+        {
+            return Commands.literal("chunks")
+                .then(Commands.literal("te").executes(ctx -> AggregateResults.execute(ctx.getSource(), TimeTracker.TILE_ENTITY_UPDATE.getChunkTimingData(), AggregateResults::chunkName)))
+                .then(Commands.literal("entity").executes(ctx -> AggregateResults.execute(ctx.getSource(), TimeTracker.ENTITY_UPDATE.getChunkTimingData(), AggregateResults::chunkName)));
+        }
+    }
 }
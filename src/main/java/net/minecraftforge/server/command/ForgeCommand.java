@@ -30,6 +30,7 @@ public class ForgeCommand
         dispatcher.register(
             LiteralArgumentBuilder.<CommandSource>literal("forge")
             .then(CommandTps.register())
+            .then(CommandEvents.register())
             .then(CommandTrack.register())
             .then(CommandEntity.register())
             .then(CommandGenerate.register())
@@ -0,0 +1,187 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.collect.ImmutableList;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.IEventListener;
+import net.minecraftforge.fml.ModList;
+import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
+
+/**
+ * Collects the time spent in each listener of events posted to the {@link net.minecraftforge.common.MinecraftForge#EVENT_BUS}
+ * while enabled, see {@link TimedEventBus}.
+ *
+ * Timings are attributed per listener and, for listeners registered with {@link net.minecraftforge.eventbus.api.SubscribeEvent},
+ * to the mod that owns the listener class.
+ */
+public class EventTimings
+{
+    private static volatile boolean enabled;
+    private static final Map<IEventListener, ListenerTimings> timings = new ConcurrentHashMap<>();
+    private static Map<String, String> classOwners;
+
+    /**
+     * Enables or disables event timings. Disabling does not clear the collected data.
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        EventTimings.enabled = enabled;
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Clears all collected event timings
+     */
+    public static void reset()
+    {
+        timings.clear();
+    }
+
+    /**
+     * Invokes the listener, measuring the time it takes.
+     * Used as the {@link net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher} while enabled.
+     */
+    static void invoke(IEventListener listener, Event event)
+    {
+        if (listener instanceof EventPriority) // Phase markers, not worth measuring
+        {
+            listener.invoke(event);
+            return;
+        }
+        final long start = System.nanoTime();
+        try
+        {
+            listener.invoke(event);
+        }
+        finally
+        {
+            final long elapsed = System.nanoTime() - start;
+            ListenerTimings data = timings.get(listener);
+            if (data == null)
+                data = timings.computeIfAbsent(listener, l -> new ListenerTimings(l, event));
+            data.record(elapsed);
+        }
+    }
+
+    /**
+     * @return The timings of each listener, keyed by a description of the listener and the event it received
+     */
+    public static ImmutableList<ForgeTimings<String>> getListenerTimingData()
+    {
+        ImmutableList.Builder<ForgeTimings<String>> builder = ImmutableList.builder();
+        timings.values().forEach(data -> builder.add(new ForgeTimings<>(data.name + " (" + data.event + ")", data.snapshot())));
+        return builder.build();
+    }
+
+    /**
+     * @return The timings of all listeners owned by a mod combined, keyed by mod id
+     */
+    public static ImmutableList<ForgeTimings<String>> getModTimingData()
+    {
+        Map<String, TickHistogram> mods = new HashMap<>();
+        timings.values().forEach(data -> mods.computeIfAbsent(getModId(data.owner), k -> new TickHistogram()).add(data.snapshot()));
+        ImmutableList.Builder<ForgeTimings<String>> builder = ImmutableList.builder();
+        mods.forEach((mod, histogram) -> builder.add(new ForgeTimings<>(mod, histogram)));
+        return builder.build();
+    }
+
+    private static String getModId(String owner)
+    {
+        if (owner == null)
+            return "unknown";
+        if (owner.startsWith("net.minecraftforge."))
+            return "forge";
+        if (owner.startsWith("net.minecraft."))
+            return "minecraft";
+        return getClassOwners().getOrDefault(owner, "unknown");
+    }
+
+    private static synchronized Map<String, String> getClassOwners()
+    {
+        if (classOwners == null)
+        {
+            Map<String, String> owners = new HashMap<>();
+            for (ModFileInfo info : ModList.get().getModFiles())
+            {
+                if (info.getMods().isEmpty() || info.getFile().getScanResult() == null)
+                    continue;
+                String modId = info.getMods().get(0).getModId();
+                info.getFile().getScanResult().getAnnotations().forEach(a -> owners.putIfAbsent(a.getClassType().getClassName(), modId));
+            }
+            classOwners = owners;
+        }
+        return classOwners;
+    }
+
+    /**
+     * Extracts the class that declares the listener method from the description of an ASM generated listener,
+     * which looks like {@code ASM: <target> <method><descriptor>}, the target being either the class or an instance of it.
+     */
+    private static String getOwnerClass(String listener)
+    {
+        if (!listener.startsWith("ASM: "))
+            return null;
+        String target = listener.substring(5);
+        int space = target.lastIndexOf(' ');
+        if (space > 0)
+            target = target.substring(0, space);
+        if (target.startsWith("class "))
+            target = target.substring(6);
+        int at = target.indexOf('@');
+        return at > 0 ? target.substring(0, at) : target;
+    }
+
+    private static class ListenerTimings
+    {
+        private final String name;
+        private final String event;
+        private final String owner;
+        private final TickHistogram histogram = new TickHistogram();
+
+        private ListenerTimings(IEventListener listener, Event event)
+        {
+            this.name = listener.toString();
+            this.event = event.getClass().getSimpleName();
+            this.owner = getOwnerClass(this.name);
+        }
+
+        private synchronized void record(long nanos)
+        {
+            histogram.record(nanos);
+        }
+
+        private synchronized TickHistogram snapshot()
+        {
+            return histogram.copy();
+        }
+    }
+}
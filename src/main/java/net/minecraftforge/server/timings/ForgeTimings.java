@@ -20,7 +20,8 @@
 package net.minecraftforge.server.timings;
 
 import java.lang.ref.WeakReference;
-import java.util.Arrays;
+
+import javax.annotation.Nullable;
 
 /**
  * ForgeTimings aggregates timings data collected by {@link TimeTracker} for an Object
@@ -35,12 +36,25 @@ public class ForgeTimings<T>
 
     private int[] rawTimingData;
 
+    @Nullable
+    private TickHistogram histogram;
+    // Aggregated timings are keyed by snapshot objects nobody else holds on to, keep them alive with the timings.
+    @Nullable
+    private T key;
+
     public ForgeTimings(T object, int[] rawTimingData)
     {
         this.object = new WeakReference<T>(object);
         this.rawTimingData = rawTimingData;
     }
 
+    public ForgeTimings(T key, TickHistogram histogram)
+    {
+        this.object = new WeakReference<T>(key);
+        this.key = key;
+        this.histogram = histogram;
+    }
+
     /**
      * Retrieves the object that the timings are for
      *
@@ -59,6 +73,9 @@ public class ForgeTimings<T>
      */
     public double getAverageTimings()
     {
+        if (histogram != null)
+            return histogram.getAverage();
+
         double sum = 0.0;
 
         for (int data : rawTimingData)
@@ -68,4 +85,32 @@ public class ForgeTimings<T>
 
         return sum / rawTimingData.length;
     }
+
+    /**
+     * Estimates a percentile of the aggregated timings data.
+     * Only available for continuous timings, see {@link TimeTracker#setContinuous(boolean)}.
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The estimated percentile in nanoseconds, or the average for raw timings data
+     */
+    public double getPercentileTimings(double percentile)
+    {
+        return histogram == null ? getAverageTimings() : histogram.getPercentile(percentile);
+    }
+
+    /**
+     * @return The total time in nanoseconds spent in the aggregated timings data, or the average for raw timings data
+     */
+    public double getTotalTimings()
+    {
+        return histogram == null ? getAverageTimings() : histogram.getTotalNanos();
+    }
+
+    /**
+     * @return The number of samples in the timings data
+     */
+    public long getSampleCount()
+    {
+        return histogram == null ? rawTimingData.length : histogram.getCount();
+    }
 }
@@ -0,0 +1,181 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size, allocation free histogram of tick durations in nanoseconds.
+ *
+ * Durations are grouped in buckets of four per power of two, which bounds the
+ * error of any reported percentile to 25% while keeping the whole histogram in a
+ * single small int array. Old data is aged out by {@link #decay()}, which halves
+ * every bucket, so percentiles reflect a rolling window.
+ */
+public class TickHistogram
+{
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 36; // ~68 seconds, anything above is clamped
+    private static final int BUCKETS = MAX_EXPONENT * SUB_BUCKETS;
+
+    private final int[] buckets;
+    private long count;
+    private long totalNanos;
+
+    public TickHistogram()
+    {
+        this.buckets = new int[BUCKETS];
+    }
+
+    private TickHistogram(TickHistogram other)
+    {
+        this.buckets = other.buckets.clone();
+        this.count = other.count;
+        this.totalNanos = other.totalNanos;
+    }
+
+    /**
+     * Records a single sample
+     *
+     * @param nanos The duration in nanoseconds
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            nanos = 0;
+        buckets[bucketFor(nanos)]++;
+        count++;
+        totalNanos += nanos;
+    }
+
+    /**
+     * Adds all samples recorded by another histogram to this one
+     *
+     * @param other The histogram to merge into this one
+     */
+    public void add(TickHistogram other)
+    {
+        for (int x = 0; x < BUCKETS; x++)
+            buckets[x] += other.buckets[x];
+        count += other.count;
+        totalNanos += other.totalNanos;
+    }
+
+    /**
+     * Halves all recorded data, letting old samples fade out.
+     */
+    public void decay()
+    {
+        long newCount = 0;
+        for (int x = 0; x < BUCKETS; x++)
+        {
+            buckets[x] >>>= 1;
+            newCount += buckets[x];
+        }
+        totalNanos = count == 0 ? 0 : totalNanos * newCount / count;
+        count = newCount;
+    }
+
+    public void reset()
+    {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        totalNanos = 0;
+    }
+
+    public boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * @return The number of samples currently in the histogram
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * @return The sum of all samples currently in the histogram in nanoseconds
+     */
+    public long getTotalNanos()
+    {
+        return totalNanos;
+    }
+
+    /**
+     * @return The average sample in nanoseconds
+     */
+    public double getAverage()
+    {
+        return count == 0 ? 0 : (double)totalNanos / count;
+    }
+
+    /**
+     * Estimates the given percentile
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds
+     */
+    public long getPercentile(double percentile)
+    {
+        if (count == 0)
+            return 0;
+        long target = (long)Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100.0D);
+        long seen = 0;
+        for (int x = 0; x < BUCKETS; x++)
+        {
+            seen += buckets[x];
+            if (seen >= Math.max(target, 1))
+                return lowerBound(x + 1) - 1;
+        }
+        return lowerBound(BUCKETS) - 1;
+    }
+
+    /**
+     * @return An independent copy of the current state of this histogram
+     */
+    public TickHistogram copy()
+    {
+        return new TickHistogram(this);
+    }
+
+    private static int bucketFor(long nanos)
+    {
+        if (nanos < SUB_BUCKETS)
+            return (int)nanos;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent >= MAX_EXPONENT)
+            return BUCKETS - 1;
+        int sub = (int)(nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket)
+    {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        return (long)(SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+}
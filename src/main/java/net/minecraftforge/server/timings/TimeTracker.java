@@ -19,20 +19,35 @@
 
 package net.minecraftforge.server.timings;
 
-import java.lang.ref.WeakReference;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nullable;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.MapMaker;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import net.minecraft.entity.Entity;
 import net.minecraft.tileentity.TileEntity;
+import net.minecraft.util.RegistryKey;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.util.math.MathHelper;
+import net.minecraft.world.World;
+import org.apache.commons.lang3.tuple.Pair;
 
 /**
  * A class to assist in the collection of data to measure the update times of ticking objects {currently Tile Entities and Entities}
  *
+ * Besides timing individual objects for a fixed duration, the tracker can run in a continuous mode
+ * which aggregates the update times per type and per chunk into {@link TickHistogram}s.
+ * This mode has a fixed cost per update, does not retain the tracked objects, and is bounded in memory.
+ *
  * @param <T>
  */
 public class TimeTracker<T>
@@ -41,19 +56,61 @@ public class TimeTracker<T>
     /**
      * A tracker for timing tile entity update
      */
-    public static final TimeTracker<TileEntity> TILE_ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<TileEntity> TILE_ENTITY_UPDATE = new TimeTracker<>(TileEntity::getType, TileEntity::getWorld,
+            te -> ChunkPos.asLong(te.getPos().getX() >> 4, te.getPos().getZ() >> 4));
     /**
      * A tracker for timing entity updates
      */
-    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>();
+    public static final TimeTracker<Entity> ENTITY_UPDATE = new TimeTracker<>(Entity::getType, e -> e.world,
+            e -> ChunkPos.asLong(MathHelper.floor(e.getPosX()) >> 4, MathHelper.floor(e.getPosZ()) >> 4));
+
+    /**
+     * The interval at which continuous timings are halved, so old data fades out.
+     */
+    private static final long DECAY_INTERVAL = TimeUnit.NANOSECONDS.convert(30, TimeUnit.SECONDS);
+    /**
+     * The maximum amount of chunks to keep continuous timings for, across all dimensions.
+     */
+    private static final int MAX_TRACKED_CHUNKS = 1024;
 
     private boolean enabled;
     private int trackingDuration;
     private Map<T, int[]> timings = new MapMaker().weakKeys().makeMap();
-    private WeakReference<T> currentlyTracking;
+    private T currentlyTracking;
     private long trackTime;
     private long timing;
 
+    // Both may be changed from other threads, such as the config watcher. The continuous timings themselves are
+    // only touched on the thread that ticks the tracked objects, which also applies a requested reset. The world hooks
+    // run on both the client and the integrated server thread, so objects in client worlds are not tracked at all.
+    private volatile boolean continuous;
+    private volatile boolean resetRequested;
+    private final Function<T, ?> typeGetter;
+    private final Function<T, World> worldGetter;
+    private final ToLongFunction<T> chunkGetter;
+    private final Map<Object, TickHistogram> typeTimings = new IdentityHashMap<>();
+    private final Map<RegistryKey<World>, Long2ObjectMap<TickHistogram>> chunkTimings = new IdentityHashMap<>();
+    private int trackedChunks;
+    private long lastDecay;
+
+    public TimeTracker()
+    {
+        this(Object::getClass, null, null);
+    }
+
+    /**
+     * @param typeGetter   Returns the type that continuous timings of an object are aggregated under
+     * @param worldGetter  Returns the world of an object, or null to not aggregate continuous timings per chunk.
+     *                     Objects in client worlds are ignored, without it the tracker must only be used from one thread.
+     * @param chunkGetter  Returns the {@link ChunkPos#asLong(int, int) packed chunk position} of an object
+     */
+    public TimeTracker(Function<T, ?> typeGetter, @Nullable Function<T, World> worldGetter, @Nullable ToLongFunction<T> chunkGetter)
+    {
+        this.typeGetter = typeGetter;
+        this.worldGetter = worldGetter;
+        this.chunkGetter = chunkGetter;
+    }
+
     /**
      * Returns the timings data recorded by the tracker
      *
@@ -70,6 +127,35 @@ public class TimeTracker<T>
         return builder.build();
     }
 
+    /**
+     * Returns the continuous timings aggregated by type
+     *
+     * @return An immutable list of timings data, keyed by type
+     */
+    public ImmutableList<ForgeTimings<Object>> getTypeTimingData()
+    {
+        applyRequestedReset();
+        ImmutableList.Builder<ForgeTimings<Object>> builder = ImmutableList.builder();
+        typeTimings.forEach((type, histogram) -> builder.add(new ForgeTimings<>(type, histogram.copy())));
+        return builder.build();
+    }
+
+    /**
+     * Returns the continuous timings aggregated by chunk
+     *
+     * @return An immutable list of timings data, keyed by dimension and chunk
+     */
+    public ImmutableList<ForgeTimings<Pair<RegistryKey<World>, ChunkPos>>> getChunkTimingData()
+    {
+        applyRequestedReset();
+        ImmutableList.Builder<ForgeTimings<Pair<RegistryKey<World>, ChunkPos>>> builder = ImmutableList.builder();
+        chunkTimings.forEach((dim, chunks) -> {
+            for (Long2ObjectMap.Entry<TickHistogram> entry : chunks.long2ObjectEntrySet())
+                builder.add(new ForgeTimings<>(Pair.of(dim, new ChunkPos(entry.getLongKey())), entry.getValue().copy()));
+        });
+        return builder.build();
+    }
+
     /**
      * Resets the tracker (clears timings and stops any in-progress timings)
      */
@@ -80,6 +166,26 @@ public class TimeTracker<T>
         timings.clear();
     }
 
+    /**
+     * Clears all continuous timings, without changing whether continuous tracking is enabled.
+     * Safe to call from any thread, the timings are cleared on the ticking thread before they are next used.
+     */
+    public void resetContinuous()
+    {
+        resetRequested = true;
+    }
+
+    private void applyRequestedReset()
+    {
+        if (!resetRequested)
+            return;
+        resetRequested = false;
+        typeTimings.clear();
+        chunkTimings.clear();
+        trackedChunks = 0;
+        lastDecay = 0;
+    }
+
     /**
      * Ends the timing of the currently tracking object
      *
@@ -87,7 +193,7 @@ public class TimeTracker<T>
      */
     public void trackEnd(T tracking)
     {
-        if (!enabled)
+        if ((!enabled && !continuous) || isClientSide(tracking))
             return;
         this.trackEnd(tracking, System.nanoTime());
     }
@@ -103,6 +209,25 @@ public class TimeTracker<T>
         this.enabled = true;
     }
 
+    /**
+     * Enables or disables continuous tracking. Safe to call from any thread.
+     *
+     * @param continuous Whether to continuously aggregate timings per type and chunk
+     */
+    public void setContinuous(boolean continuous)
+    {
+        if (this.continuous == continuous)
+            return;
+        this.continuous = continuous;
+        if (!continuous)
+            resetContinuous();
+    }
+
+    public boolean isContinuous()
+    {
+        return continuous;
+    }
+
     /**
      * Starts timing of the provided object
      *
@@ -110,36 +235,104 @@ public class TimeTracker<T>
      */
     public void trackStart(T toTrack)
     {
-        if (!enabled)
+        if ((!enabled && !continuous) || isClientSide(toTrack))
             return;
         this.trackStart(toTrack, System.nanoTime());
     }
 
+    private boolean isClientSide(T object)
+    {
+        if (worldGetter == null)
+            return false;
+        World world = worldGetter.apply(object);
+        return world != null && world.isRemote;
+    }
+
     private void trackEnd(T object, long nanoTime)
     {
-        if (currentlyTracking == null || currentlyTracking.get() != object)
+        if (currentlyTracking != object)
         {
             currentlyTracking = null;
             return;
         }
-        int[] timings = this.timings.computeIfAbsent(object, k -> new int[101]);
-        int idx = timings[100] = (timings[100] + 1) % 100;
-        timings[idx] = (int) (nanoTime - timing);
+        currentlyTracking = null;
+        if (enabled)
+        {
+            int[] timings = this.timings.computeIfAbsent(object, k -> new int[101]);
+            int idx = timings[100] = (timings[100] + 1) % 100;
+            timings[idx] = (int) (nanoTime - timing);
+        }
+        if (continuous)
+            record(object, nanoTime - timing, nanoTime);
     }
 
     private void trackStart(T toTrack, long nanoTime)
     {
-        if (trackTime == 0)
+        if (enabled)
         {
-            trackTime = nanoTime;
+            if (trackTime == 0)
+            {
+                trackTime = nanoTime;
+            }
+            else if (trackTime + TimeUnit.NANOSECONDS.convert(trackingDuration, TimeUnit.SECONDS) < nanoTime)
+            {
+                enabled = false;
+                trackTime = 0;
+            }
         }
-        else if (trackTime + TimeUnit.NANOSECONDS.convert(trackingDuration, TimeUnit.SECONDS) < nanoTime)
+
+        currentlyTracking = toTrack;
+        timing = nanoTime;
+    }
+
+    private void record(T object, long elapsed, long nanoTime)
+    {
+        applyRequestedReset();
+        if (lastDecay == 0)
+            lastDecay = nanoTime;
+        else if (nanoTime - lastDecay > DECAY_INTERVAL)
         {
-            enabled = false;
-            trackTime = 0;
+            lastDecay = nanoTime;
+            decay();
         }
 
-        currentlyTracking = new WeakReference<>(toTrack);
-        timing = nanoTime;
+        typeTimings.computeIfAbsent(typeGetter.apply(object), k -> new TickHistogram()).record(elapsed);
+
+        if (worldGetter == null)
+            return;
+        World world = worldGetter.apply(object);
+        if (world == null)
+            return;
+        Long2ObjectMap<TickHistogram> chunks = chunkTimings.computeIfAbsent(world.getDimensionKey(), k -> new Long2ObjectOpenHashMap<>());
+        long chunk = chunkGetter.applyAsLong(object);
+        TickHistogram histogram = chunks.get(chunk);
+        if (histogram == null)
+        {
+            if (trackedChunks >= MAX_TRACKED_CHUNKS)
+                return;
+            trackedChunks++;
+            histogram = new TickHistogram();
+            chunks.put(chunk, histogram);
+        }
+        histogram.record(elapsed);
+    }
+
+    private void decay()
+    {
+        typeTimings.values().removeIf(histogram -> {
+            histogram.decay();
+            return histogram.isEmpty();
+        });
+        for (Long2ObjectMap<TickHistogram> chunks : chunkTimings.values())
+        {
+            chunks.values().removeIf(histogram -> {
+                histogram.decay();
+                if (!histogram.isEmpty())
+                    return false;
+                trackedChunks--;
+                return true;
+            });
+        }
+        chunkTimings.values().removeIf(Map::isEmpty);
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.server.timings;
+
+import java.util.function.Consumer;
+
+import net.minecraftforge.eventbus.api.Event;
+import net.minecraftforge.eventbus.api.EventPriority;
+import net.minecraftforge.eventbus.api.GenericEvent;
+import net.minecraftforge.eventbus.api.IEventBus;
+import net.minecraftforge.eventbus.api.IEventBusInvokeDispatcher;
+
+/**
+ * An {@link IEventBus} that routes listener invocations through {@link EventTimings} while it is enabled.
+ * When disabled, posting an event costs a single volatile read on top of the wrapped bus.
+ */
+public class TimedEventBus implements IEventBus
+{
+    private final IEventBus delegate;
+
+    public TimedEventBus(IEventBus delegate)
+    {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void register(Object target)
+    {
+        delegate.register(target);
+    }
+
+    @Override
+    public <T extends Event> void addListener(Consumer<T> consumer)
+    {
+        delegate.addListener(consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, boolean receiveCancelled, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, receiveCancelled, consumer);
+    }
+
+    @Override
+    public <T extends Event> void addListener(EventPriority priority, boolean receiveCancelled, Class<T> eventType, Consumer<T> consumer)
+    {
+        delegate.addListener(priority, receiveCancelled, eventType, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, boolean receiveCancelled, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, receiveCancelled, consumer);
+    }
+
+    @Override
+    public <T extends GenericEvent<? extends F>, F> void addGenericListener(Class<F> genericClassFilter, EventPriority priority, boolean receiveCancelled, Class<T> eventType, Consumer<T> consumer)
+    {
+        delegate.addGenericListener(genericClassFilter, priority, receiveCancelled, eventType, consumer);
+    }
+
+    @Override
+    public void unregister(Object object)
+    {
+        delegate.unregister(object);
+    }
+
+    @Override
+    public boolean post(Event event)
+    {
+        return EventTimings.isEnabled() ? delegate.post(event, EventTimings::invoke) : delegate.post(event);
+    }
+
+    @Override
+    public boolean post(Event event, IEventBusInvokeDispatcher wrapper)
+    {
+        return delegate.post(event, wrapper);
+    }
+
+    @Override
+    public void shutdown()
+    {
+        delegate.shutdown();
+    }
+
+    @Override
+    public void start()
+    {
+        delegate.start();
+    }
+}
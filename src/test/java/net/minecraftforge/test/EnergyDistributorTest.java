@@ -0,0 +1,189 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.test;
+
+import net.minecraftforge.energy.EnergyDistributor;
+import net.minecraftforge.energy.EnergyStorage;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EnergyDistributorTest
+{
+    private static EnergyStorage producer(int energy, int maxExtract)
+    {
+        return new EnergyStorage(Integer.MAX_VALUE, 0, maxExtract, energy);
+    }
+
+    private static EnergyStorage consumer(int capacity, int maxReceive)
+    {
+        return new EnergyStorage(capacity, maxReceive, 0, 0);
+    }
+
+    private static long stored(EnergyStorage... storages)
+    {
+        long total = 0;
+        for (EnergyStorage storage : storages)
+            total += storage.getEnergyStored();
+        return total;
+    }
+
+    @Test
+    public void testLimitedByDemand()
+    {
+        EnergyStorage source = producer(1000, 300);
+        EnergyStorage[] sinks = { consumer(1000, 50), consumer(1000, 50), consumer(1000, 50) };
+        EnergyDistributor distributor = new EnergyDistributor();
+        distributor.addProducer(source);
+        for (EnergyStorage sink : sinks)
+            distributor.addConsumer(sink);
+
+        assertEquals(150, distributor.distribute(Long.MAX_VALUE));
+        assertEquals(300, distributor.getLastSupply());
+        assertEquals(150, distributor.getLastDemand());
+        assertEquals(850, source.getEnergyStored());
+        for (EnergyStorage sink : sinks)
+            assertEquals(50, sink.getEnergyStored());
+    }
+
+    @Test
+    public void testProportionalSplit()
+    {
+        EnergyStorage[] sources = { producer(1000, 300), producer(1000, 100) };
+        EnergyStorage[] sinks = { consumer(1000, 100), consumer(1000, 300) };
+        EnergyDistributor distributor = new EnergyDistributor();
+        for (EnergyStorage source : sources)
+            distributor.addProducer(source);
+        for (EnergyStorage sink : sinks)
+            distributor.addConsumer(sink);
+
+        assertEquals(200, distributor.distribute(200));
+        assertEquals(1000 - 150, sources[0].getEnergyStored(), "Producers give in proportion to what they offered");
+        assertEquals(1000 - 50, sources[1].getEnergyStored(), "Producers give in proportion to what they offered");
+        assertEquals(50, sinks[0].getEnergyStored(), "Consumers take in proportion to what they asked for");
+        assertEquals(150, sinks[1].getEnergyStored(), "Consumers take in proportion to what they asked for");
+    }
+
+    @Test
+    public void testRoundingRemainder()
+    {
+        EnergyStorage source = producer(100, 100);
+        EnergyStorage[] sinks = { consumer(1000, 100), consumer(1000, 100), consumer(1000, 100) };
+        EnergyDistributor distributor = new EnergyDistributor();
+        distributor.addProducer(source);
+        for (EnergyStorage sink : sinks)
+            distributor.addConsumer(sink);
+
+        assertEquals(100, distributor.distribute(Long.MAX_VALUE), "Rounded down shares must not lose energy");
+        assertEquals(0, source.getEnergyStored());
+        assertEquals(34, sinks[0].getEnergyStored(), "The rounding remainder goes to the first endpoint with room");
+        assertEquals(33, sinks[1].getEnergyStored());
+        assertEquals(33, sinks[2].getEnergyStored());
+
+        // a remainder larger than one endpoint's room is spread over the following ones
+        EnergyStorage[] sources = { producer(1000, 1), producer(1000, 1), producer(1000, 1), producer(1000, 1000) };
+        EnergyStorage sink = consumer(1000, 7);
+        distributor = new EnergyDistributor();
+        for (EnergyStorage s : sources)
+            distributor.addProducer(s);
+        distributor.addConsumer(sink);
+
+        assertEquals(7, distributor.distribute(Long.MAX_VALUE));
+        assertEquals(7, 4000 - stored(sources), "Producers must give exactly what was delivered");
+        for (EnergyStorage s : sources)
+            assertTrue(s.getEnergyStored() >= 1000 - (s == sources[3] ? 1000 : 1), "No producer may give more than it offered");
+    }
+
+    @Test
+    public void testMaxTransfer()
+    {
+        EnergyStorage[] sources = { producer(1000, 1000), producer(1000, 1000) };
+        EnergyStorage[] sinks = { consumer(1000, 1000), consumer(1000, 1000), consumer(1000, 1000) };
+        EnergyDistributor distributor = new EnergyDistributor();
+        for (EnergyStorage source : sources)
+            distributor.addProducer(source);
+        for (EnergyStorage sink : sinks)
+            distributor.addConsumer(sink);
+
+        assertEquals(10, distributor.distribute(10));
+        assertEquals(10, 2000 - stored(sources));
+        assertEquals(10, stored(sinks));
+        assertEquals(0, distributor.distribute(0));
+        assertEquals(0, distributor.distribute(-5));
+        assertEquals(10, distributor.getTotalTransferred());
+    }
+
+    @Test
+    public void testLargeTotals()
+    {
+        EnergyStorage[] sources = new EnergyStorage[4];
+        EnergyStorage[] sinks = new EnergyStorage[3];
+        EnergyDistributor distributor = new EnergyDistributor();
+        for (int i = 0; i < sources.length; i++)
+            distributor.addProducer(sources[i] = producer(Integer.MAX_VALUE, Integer.MAX_VALUE));
+        for (int i = 0; i < sinks.length; i++)
+            distributor.addConsumer(sinks[i] = consumer(Integer.MAX_VALUE, Integer.MAX_VALUE));
+
+        long expected = 3L * Integer.MAX_VALUE;
+        assertEquals(expected, distributor.distribute(Long.MAX_VALUE), "Totals above Integer.MAX_VALUE must not overflow");
+        assertEquals(4L * Integer.MAX_VALUE, distributor.getLastSupply());
+        assertEquals(expected, 4L * Integer.MAX_VALUE - stored(sources));
+        assertEquals(expected, stored(sinks));
+        assertEquals(0, distributor.getTotalWasted());
+    }
+
+    @Test
+    public void testMisbehavingConsumer()
+    {
+        // promises to take energy in simulations, but never does
+        EnergyStorage liar = new EnergyStorage(1000, 100, 0, 0)
+        {
+            @Override
+            public int receiveEnergy(int maxReceive, boolean simulate)
+            {
+                return simulate ? super.receiveEnergy(maxReceive, true) : 0;
+            }
+        };
+        EnergyStorage honest = consumer(100, 100);
+        EnergyStorage source = new EnergyStorage(1000, 1000, 150, 1000);
+        EnergyDistributor distributor = new EnergyDistributor();
+        distributor.addProducer(source);
+        distributor.addConsumer(liar);
+        distributor.addConsumer(honest);
+
+        long delivered = distributor.distribute(Long.MAX_VALUE);
+        assertEquals(100, delivered, "What the liar refused goes to the other consumers first");
+        assertEquals(100, honest.getEnergyStored());
+        assertEquals(900, source.getEnergyStored(), "What nobody took goes back to the producer");
+        assertEquals(0, distributor.getTotalWasted());
+    }
+
+    @Test
+    public void testNothingToMove()
+    {
+        EnergyDistributor distributor = new EnergyDistributor();
+        assertEquals(0, distributor.distribute(Long.MAX_VALUE));
+        distributor.addProducer(producer(0, 100));
+        distributor.addConsumer(consumer(1000, 100));
+        assertEquals(0, distributor.distribute(Long.MAX_VALUE));
+        assertEquals(0, distributor.getLastSupply());
+        assertEquals(100, distributor.getLastDemand());
+        assertEquals(0, distributor.getAverageThroughput(), "Calls without transfers still count towards the average");
+    }
+}
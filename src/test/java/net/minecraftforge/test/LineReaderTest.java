@@ -0,0 +1,165 @@
+/*
+ * Minecraft Forge
+ * Copyright (c) 2016-2020.
+ *
+ * This library is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation version 2.1
+ * of the License.
+ *
+ * This library is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this library; if not, write to the Free Software
+ * Foundation, Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301  USA
+ */
+
+package net.minecraftforge.test;
+
+import net.minecraft.resources.SimpleResource;
+import net.minecraft.util.ResourceLocation;
+import net.minecraftforge.client.model.obj.LineReader;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class LineReaderTest
+{
+    private static final String[] FLOATS = {
+            "0", "1", "-1", "+1.5", "0.5", ".5", "5.", "-0", "-0.0", "00012.5000", "0.1", "0.2", "0.3",
+            "1e3", "1E-3", "-2.5e+2", "1.0e-10", "6.02214076e23", "1.17549435e-38", "3.4028235e38", "1.4e-45",
+            "123456789", "16777217", "123456789012345678901234", "0.000000000000000000001234",
+            "0.33333333333333333333333333", "3.14159265358979323846264338327950288", "99999999999999999999e-20",
+            "1e-400", "1e400", "NaN", "-Infinity", "0x1p3", "1.5f"
+    };
+
+    private static final String[] INDICES = {
+            "1", "12", "1/2", "1/2/3", "1//3", "-1/-2/-3", "007/08/009", "1/2/", "1//", "1/2/3/4"
+    };
+
+    private static LineReader reader(String text)
+    {
+        return new LineReader(new SimpleResource("test", new ResourceLocation("test", "test.obj"), new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), null));
+    }
+
+    private static String[] lines(String text) throws IOException
+    {
+        LineReader reader = reader(text);
+        StringBuilder builder = new StringBuilder();
+        while (reader.nextLine())
+            builder.append(reader.joinTokens(0)).append('|');
+        return builder.toString().split("\\|");
+    }
+
+    @Test
+    public void testFloatsMatchJdk() throws IOException
+    {
+        LineReader reader = reader("v " + String.join(" ", FLOATS));
+        assertTrue(reader.nextLine());
+        assertEquals(FLOATS.length + 1, reader.getTokenCount());
+        for (int i = 0; i < FLOATS.length; i++)
+        {
+            float expected = Float.parseFloat(FLOATS[i]);
+            float actual = reader.getFloat(i + 1, Float.NaN);
+            assertEquals(Float.floatToIntBits(expected), Float.floatToIntBits(actual), "Parsing " + FLOATS[i] + " differs from Float.parseFloat");
+        }
+        assertEquals(2.5f, reader.getFloat(FLOATS.length + 1, 2.5f), "Missing tokens should read as the default value");
+    }
+
+    @Test
+    public void testMalformedFloatsThrow() throws IOException
+    {
+        LineReader reader = reader("v - . e5 1e 1.2.3 1-2");
+        assertTrue(reader.nextLine());
+        for (int i = 1; i < reader.getTokenCount(); i++)
+        {
+            int token = i;
+            assertThrows(NumberFormatException.class, () -> reader.getFloat(token, 0), () -> "Token " + token + " should not parse");
+        }
+    }
+
+    @Test
+    public void testIndicesMatchSplit() throws IOException
+    {
+        LineReader reader = reader("f " + String.join(" ", INDICES));
+        assertTrue(reader.nextLine());
+        for (int i = 0; i < INDICES.length; i++)
+        {
+            String[] parts = INDICES[i].split("/");
+            int[] expected = new int[Math.min(parts.length, 4)];
+            for (int j = 0; j < expected.length; j++)
+                expected[j] = parts[j].isEmpty() ? 0 : Integer.parseInt(parts[j]);
+
+            int[] indices = new int[4];
+            int count = reader.getIndices(i + 1, indices);
+            assertArrayEquals(expected, Arrays.copyOf(indices, count), "Indices of " + INDICES[i] + " differ from String.split");
+        }
+    }
+
+    @Test
+    public void testIndicesDoNotOverflowArray() throws IOException
+    {
+        LineReader reader = reader("f 1/2/3/4/5");
+        assertTrue(reader.nextLine());
+        int[] indices = new int[3];
+        assertEquals(3, reader.getIndices(1, indices));
+        assertArrayEquals(new int[] { 1, 2, 3 }, indices);
+    }
+
+    @Test
+    public void testInts() throws IOException
+    {
+        LineReader reader = reader("s 0 -7 +7 0042 2147483647 -2147483648");
+        assertTrue(reader.nextLine());
+        assertEquals(0, reader.getInt(1));
+        assertEquals(-7, reader.getInt(2));
+        assertEquals(7, reader.getInt(3));
+        assertEquals(42, reader.getInt(4));
+        assertEquals(Integer.MAX_VALUE, reader.getInt(5));
+        assertEquals(Integer.MIN_VALUE, reader.getInt(6));
+
+        LineReader overflow = reader("s 2147483648 99999999999 1x");
+        assertTrue(overflow.nextLine());
+        assertThrows(NumberFormatException.class, () -> overflow.getInt(1));
+        assertThrows(NumberFormatException.class, () -> overflow.getInt(2));
+        assertThrows(NumberFormatException.class, () -> overflow.getInt(3));
+    }
+
+    @Test
+    public void testLineEndings() throws IOException
+    {
+        String[] expected = { "v 1 2 3", "v 4 5 6", "v 7 8 9", "vt 0 1" };
+        assertArrayEquals(expected, lines("v 1 2 3\nv 4 5 6\nv 7 8 9\nvt 0 1"), "\\n");
+        assertArrayEquals(expected, lines("v 1 2 3\r\nv 4 5 6\r\nv 7 8 9\r\nvt 0 1\r\n"), "\\r\\n");
+        assertArrayEquals(expected, lines("v 1 2 3\rv 4 5 6\rv 7 8 9\rvt 0 1\r"), "\\r");
+        assertArrayEquals(expected, lines("\n# comment\r\nv 1 2 3\n\n  \t\nv\t4  5 6   \r\n#v 0 0 0\nv 7 8 9\nvt 0 1\n\n"), "comments and blank lines");
+    }
+
+    @Test
+    public void testContinuationLines() throws IOException
+    {
+        assertArrayEquals(new String[] { "f 1 2 3 4", "g a" }, lines("f 1 2 \\\n3 4\ng a"));
+        assertArrayEquals(new String[] { "f 1 2 3 4", "g a" }, lines("f 1 2 \\\r\n3 \\\r\n4\r\ng a"));
+        // the backslash ends the token before it, like a space
+        assertArrayEquals(new String[] { "f 1 2", "g a" }, lines("f 1\\\n2\ng a"));
+        // a comment or empty line ends the continuation
+        assertArrayEquals(new String[] { "f 1", "g a" }, lines("f 1 \\\n\ng a"));
+    }
+
+    @Test
+    public void testReadAndSplitLine() throws IOException
+    {
+        LineReader reader = reader("a b\n\nc");
+        assertArrayEquals(new String[] { "a", "b" }, reader.readAndSplitLine(false));
+        assertArrayEquals(new String[0], reader.readAndSplitLine(false));
+        assertArrayEquals(new String[] { "c" }, reader.readAndSplitLine(false));
+        assertNull(reader.readAndSplitLine(false));
+    }
+}